@@ -8,7 +8,10 @@ export const reportsApi = {
       api.get('/reports/mood-trend', { params: { period } }).then(res => res.data),
 
   getTodayMoodSummary: () =>
-      api.get('/reports/today-mood-summary').then(res => res.data)
+      api.get('/reports/today-mood-summary').then(res => res.data),
+
+  getActivity: (startDate, endDate) =>
+      api.get('/reports/activity', { params: { startDate, endDate } }).then(res => res.data)
 };
 
 export default reportsApi;
\ No newline at end of file
@@ -1,19 +1,37 @@
+import { useActivity } from "../hooks/useReports";
+
+// yyyy-MM-dd in local time, matching the server's LocalDate keys
+const toDateKey = (date) => {
+  const month = String(date.getMonth() + 1).padStart(2, "0");
+  const day = String(date.getDate()).padStart(2, "0");
+  return `${date.getFullYear()}-${month}-${day}`;
+};
+
 export default function Heatmap() {
+  const today = new Date();
+  const rangeStart = new Date(today);
+  rangeStart.setDate(today.getDate() - 364);
+
+  // Per-day counts come from /reports/activity instead of bucketing the full task list here
+  const { activity } = useActivity(toDateKey(rangeStart), toDateKey(today));
+  const countsByDate = new Map(
+    activity.map((day) => [day.date, day.diaryEntries + day.tasksCreated + day.tasksCompleted])
+  );
+
   // 1) Generate past 52 weeks (364 days) data (grayscale, keep count for future coloring)
   const generateHeatmapData = () => {
     const data = [];
-    const today = new Date();
-    const startDate = new Date(today);
-    startDate.setDate(today.getDate() - 364); // 52 weeks ago (including start date)
+    const startDate = new Date(rangeStart);
 
     for (let w = 0; w < 52; w++) {
       for (let d = 0; d < 7; d++) {
         const date = new Date(startDate);
         date.setDate(startDate.getDate() + (w * 7) + d);
         if (date <= today) {
+          const key = toDateKey(date);
           data.push({
-            date: date.toISOString().split("T")[0],
-            count: Math.floor(Math.random() * 5),
+            date: key,
+            count: countsByDate.get(key) || 0,
             week: w,
             day: d,
           });
@@ -122,7 +140,7 @@ export default function Heatmap() {
                   {row.map((cell, cIdx) => (
                     <div
                       key={`${rIdx}-${cIdx}`}
-                      title={cell.date ? `${cell.date}` : "No data"}
+                      title={cell.date ? `${cell.date}: ${cell.count} activities` : "No data"}
                       className={`w-3 h-3 rounded-sm ${getCellClass(cell.count)} hover:opacity-80`}
                     />
                   ))}
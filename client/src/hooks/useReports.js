@@ -30,4 +30,19 @@ export const useTodayMoodSummary = () => {
     error,
     refetch
   };
-};
\ No newline at end of file
+};
+
+// Hook for the activity heatmap: per-day counts aggregated on the server
+export const useActivity = (startDate, endDate) => {
+  const { data: activity = [], isLoading, error } = useQuery({
+    queryKey: ['reports', 'activity', startDate, endDate],
+    queryFn: () => reportsApi.getActivity(startDate, endDate),
+    enabled: !!startDate && !!endDate
+  });
+
+  return {
+    activity,
+    isLoading,
+    error
+  };
+};
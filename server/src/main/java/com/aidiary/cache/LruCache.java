@@ -0,0 +1,98 @@
+package com.aidiary.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, CachedValue<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record CachedValue<V>(V value, long expiresAtMillis) {
+    }
+
+    public LruCache(int maxSize) {
+        this(maxSize, 0);
+    }
+
+    public LruCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        CachedValue<V> cached = entries.get(key);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (cached.expiresAtMillis() > 0 && cached.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0;
+        entries.put(key, new CachedValue<>(value, expiresAt));
+    }
+
+    public synchronized V remove(K key) {
+        CachedValue<V> removed = entries.remove(key);
+        return removed != null ? removed.value() : null;
+    }
+
+    public synchronized void removeIf(BiPredicate<K, V> predicate) {
+        Iterator<Map.Entry<K, CachedValue<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, CachedValue<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(v -> v.expiresAtMillis() > 0 && v.expiresAtMillis() <= now);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+}
@@ -1,7 +1,5 @@
 package com.aidiary.config;
 
-import com.aidiary.tools.DiaryTools;
-import com.aidiary.tools.TaskTools;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.ai.chat.client.ChatClient;
@@ -10,30 +8,31 @@ import org.springframework.ai.chat.model.ChatModel;
 @Configuration
 public class ChatConfig {
 
-    @Bean
-    public ChatClient chatClient(ChatModel chatModel, DiaryTools diaryTools, TaskTools taskTools) {
-        return ChatClient.builder(chatModel)
-                .defaultSystem("""
+    public static final String SYSTEM_PROMPT = """
           你是一个中英文双语对话的日记和任务助手。根据用户的语言回答。
 
           你可以帮助用户：
-          1. 记录日记 - 使用 append_diary 工具，参数: {"title":"可选标题","content":"正文(必填)","mood":"可选心情"}
-          2. 创建任务 - 使用 create_task 工具，参数: {"title":"任务标题(必填)","description":"任务描述(可选)","dueDate":"截止日期(YYYY-MM-DD格式,可选)"}
-          3. 设置提醒 - 使用 set_reminder 工具
-          4. 更新任务 - 使用 update_task 工具
-          5. 查看任务 - 使用 list_tasks 工具
+          1. 记录日记 - 调用 append_diary 工具，并总是提供一个简短标题
+          2. 创建任务 - 调用 create_task 工具
+          3. 设置提醒 - 调用 set_reminder 工具
+          4. 更新任务 - 调用 update_task 工具
+          5. 查看任务 - 调用 list_tasks 工具
 
-          重要：当需要使用工具时，必须以 JSON 格式返回工具调用，格式为：{"tool_name":"工具名称","parameters":{...}}
+          重要：需要执行操作时，直接调用对应的工具，不要在回复正文中输出 JSON。
+          调用工具时可以同时在正文中写一句简短的回应，工具执行结果会自动告知用户。
           
           如果用户明确说"不要写日记"或"只聊天"，则直接自然语言回复。
           
-          在回复中，请清楚地告知用户你执行了什么操作以及结果。
-          
           对话风格：
           - 主动追问：当用户的请求不够明确时，主动提出1-2个相关问题来更好地理解用户需求
           - 友好互动：保持温暖、支持的语调，鼓励用户分享更多信息
           - 心情分析：当分析或总结用户心情时，只使用英文单词（如：happy, sad, anxious, grateful, calm等），不要使用emoji或中文
-        """)
+        """;
+
+    @Bean
+    public ChatClient chatClient(ChatModel chatModel) {
+        return ChatClient.builder(chatModel)
+                .defaultSystem(SYSTEM_PROMPT)
                 .build();
     }
-}
\ No newline at end of file
+}
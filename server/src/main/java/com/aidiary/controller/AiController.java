@@ -1,12 +1,29 @@
 package com.aidiary.controller;
 
 import com.aidiary.dto.AiChatRequest;
+import com.aidiary.dto.ChatStreamEvent;
+import com.aidiary.security.SecurityUtils;
 import com.aidiary.service.AiService;
+import com.aidiary.service.IdempotencyService;
+import com.aidiary.service.LlmExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/ai")
@@ -15,19 +32,96 @@ import org.springframework.web.bind.annotation.*;
 public class AiController {
 
     private final AiService aiService;
+    private final LlmExecutor llmExecutor;
+    private final IdempotencyService idempotencyService;
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    @Value("${ai.chat.stream-timeout:180000}")
+    private long streamTimeoutMillis;
 
     @PostMapping("/chat")
-    public ResponseEntity<String> chat(@RequestBody AiChatRequest request) {
+    public CompletableFuture<ResponseEntity<String>> chat(@RequestBody AiChatRequest request,
+                                                          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("Idempotency-Key must be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"));
+        }
         try {
-            String response = aiService.processChatMessage(request.getMessage());
-            return ResponseEntity.ok(response);
-        } catch (SecurityException e) {
+            Long userId = SecurityUtils.getCurrentUserId();
+            CompletableFuture<String> reply = idempotencyKey != null && userId != null
+                    ? idempotencyService.execute(userId, idempotencyKey, request.getMessage(),
+                            release -> aiService.processChatMessageAsync(request.getMessage(), release))
+                    : aiService.processChatMessageAsync(request.getMessage());
+            return reply.thenApply(ResponseEntity::ok)
+                    .exceptionally(this::chatErrorResponse);
+        } catch (RejectedExecutionException e) {
+            log.warn("AI chat rejected, LLM executor is saturated");
+            return CompletableFuture.completedFuture(busyResponse());
+        } catch (IllegalStateException e) {
+            log.warn("Idempotency key conflict: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.unprocessableEntity().body(e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<String> chatErrorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof SecurityException) {
             log.warn("Unauthorized access attempt to AI chat endpoint");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
+        }
+        if (cause instanceof TimeoutException) {
+            log.warn("AI chat request timed out");
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body("The AI assistant is taking too long to respond. Please try again later.");
+        }
+        log.error("Error processing AI chat request: {}", cause.getMessage(), cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Sorry, I'm having trouble processing your request. Please try again later.");
+    }
+
+    private ResponseEntity<String> busyResponse() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(llmExecutor.getRetryAfterSeconds()))
+                .body("The AI assistant is busy right now. Please try again shortly.");
+    }
+
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> chatStream(@RequestBody AiChatRequest request) {
+        if (!llmExecutor.tryAcquirePermit()) {
+            log.warn("AI chat stream rejected, LLM executor is saturated");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(llmExecutor.getRetryAfterSeconds()))
+                    .build();
+        }
+
+        Flux<ChatStreamEvent> events;
+        try {
+            events = aiService.streamChatMessage(request.getMessage())
+                    .doFinally(signal -> llmExecutor.releasePermit());
+        } catch (SecurityException e) {
+            llmExecutor.releasePermit();
+            log.warn("Unauthorized access attempt to AI chat stream endpoint");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } catch (Exception e) {
-            log.error("Error processing AI chat request: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Sorry, I'm having trouble processing your request. Please try again later.");
+            llmExecutor.releasePermit();
+            log.error("Error starting AI chat stream: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Disposable subscription = events.subscribe(event -> {
+            try {
+                emitter.send(SseEmitter.event().name(event.getType()).data(event.getData()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, emitter::completeWithError, emitter::complete);
+
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        emitter.onCompletion(subscription::dispose);
+        return ResponseEntity.ok(emitter);
     }
 }
@@ -40,6 +40,11 @@ public class AuthController {
         return response != null ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
     }
 
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll() {
+        return authService.revokeAllTokens() ? ResponseEntity.noContent().build() : ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
     @GetMapping("/me")
     public ResponseEntity<User> getMe() {
         User user = authService.getMe();
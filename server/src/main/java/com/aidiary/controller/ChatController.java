@@ -1,6 +1,5 @@
 package com.aidiary.controller;
 
-import com.aidiary.mapper.UserMapper;
 import com.aidiary.security.SecurityUtils;
 import com.aidiary.tools.DiaryTools;
 import lombok.RequiredArgsConstructor;
@@ -18,11 +17,10 @@ public class ChatController {
 
     private final ChatClient chat;
     private final DiaryTools tools;
-    private final UserMapper userMapper;
     
     @PostMapping("/chat")
     public ResponseEntity<String> chat(@RequestBody String userMsg) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             log.warn("Unauthorized access attempt to chat endpoint");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
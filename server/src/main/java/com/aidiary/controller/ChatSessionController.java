@@ -3,7 +3,6 @@ package com.aidiary.controller;
 import com.aidiary.model.ChatSession;
 import com.aidiary.model.ChatMessage;
 import com.aidiary.service.ChatSessionService;
-import com.aidiary.mapper.UserMapper;
 import com.aidiary.security.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -13,12 +12,13 @@ import java.util.List;
 @RequestMapping("/chat-sessions")
 @RequiredArgsConstructor
 public class ChatSessionController {
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ChatSessionService chatSessionService;
-    private final UserMapper userMapper;
 
     @GetMapping
     public List<ChatSession> getUserSessions() {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
@@ -26,8 +26,11 @@ public class ChatSessionController {
     }
 
     @GetMapping("/{sessionId}/messages")
-    public List<ChatMessage> getSessionMessages(@PathVariable String sessionId) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+    public List<ChatMessage> getSessionMessages(@PathVariable String sessionId,
+                                                @RequestParam(required = false) Long before,
+                                                @RequestParam(required = false) Long after,
+                                                @RequestParam(defaultValue = "50") int limit) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
@@ -37,12 +40,13 @@ public class ChatSessionController {
             throw new IllegalArgumentException("Session not found or access denied");
         }
         
-        return chatSessionService.getSessionMessages(session.getId());
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return chatSessionService.getMessagesPage(session.getId(), before, after, pageSize);
     }
 
     @PostMapping
     public ChatSession createSession(@RequestParam(required = false) String title) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
@@ -53,7 +57,7 @@ public class ChatSessionController {
 
     @DeleteMapping("/{sessionId}")
     public void deleteSession(@PathVariable String sessionId) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
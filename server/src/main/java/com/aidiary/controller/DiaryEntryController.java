@@ -1,6 +1,5 @@
 package com.aidiary.controller;
 
-import com.aidiary.mapper.UserMapper;
 import com.aidiary.model.DiaryEntry;
 import com.aidiary.security.SecurityUtils;
 import com.aidiary.service.DiaryEntryService;
@@ -17,14 +16,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DiaryEntryController {
     private final DiaryEntryService diaryEntryService;
-    private final UserMapper userMapper;
 
     @GetMapping
     public List<DiaryEntry> getDiaryEntries(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
     ) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
@@ -33,7 +31,7 @@ public class DiaryEntryController {
 
     @GetMapping("/{entryId}")
     public ResponseEntity<DiaryEntry> getDiaryEntryById(@PathVariable Long entryId) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         DiaryEntry entry = diaryEntryService.findDiaryEntryById(entryId);
         if (entry == null) {
             return ResponseEntity.notFound().build();
@@ -46,14 +44,14 @@ public class DiaryEntryController {
 
     @PostMapping
     public DiaryEntry createDiaryEntry(@RequestBody DiaryEntry diaryEntry) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         diaryEntry.setUserId(currentUserId);
         return diaryEntryService.createDiaryEntry(diaryEntry);
     }
 
     @PutMapping("/{entryId}")
     public ResponseEntity<DiaryEntry> updateDiaryEntry(@PathVariable Long entryId, @RequestBody DiaryEntry entryDetails) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         DiaryEntry existingEntry = diaryEntryService.findDiaryEntryById(entryId);
 
         if (existingEntry == null) {
@@ -69,7 +67,7 @@ public class DiaryEntryController {
 
     @DeleteMapping("/{entryId}")
     public ResponseEntity<Void> deleteDiaryEntry(@PathVariable Long entryId) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         DiaryEntry existingEntry = diaryEntryService.findDiaryEntryById(entryId);
 
         if (existingEntry == null) {
@@ -1,6 +1,6 @@
 package com.aidiary.controller;
 
-import com.aidiary.mapper.UserMapper;
+import com.aidiary.model.NotificationOutbox;
 import com.aidiary.model.Reminder;
 import com.aidiary.security.SecurityUtils;
 import com.aidiary.service.ReminderService;
@@ -15,20 +15,28 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ReminderController {
     private final ReminderService reminderService;
-    private final UserMapper userMapper;
 
     @GetMapping
     public List<Reminder> getReminders() {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
         return reminderService.findByUserId(currentUserId);
     }
 
+    @GetMapping("/notifications")
+    public List<NotificationOutbox> getNotifications(@RequestParam(defaultValue = "50") int limit) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            throw new IllegalStateException("User not authenticated");
+        }
+        return reminderService.findNotifications(currentUserId, Math.max(1, Math.min(limit, 200)));
+    }
+
     @PostMapping
     public Reminder createReminder(@RequestBody Reminder reminder) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
@@ -38,7 +46,7 @@ public class ReminderController {
 
     @DeleteMapping("/{reminderId}")
     public ResponseEntity<Void> deleteReminder(@PathVariable Long reminderId) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
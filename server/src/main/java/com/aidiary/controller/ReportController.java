@@ -1,7 +1,7 @@
 package com.aidiary.controller;
 
+import com.aidiary.dto.ActivityDay;
 import com.aidiary.dto.DailySummaryResponse;
-import com.aidiary.mapper.UserMapper;
 import com.aidiary.security.SecurityUtils;
 import com.aidiary.service.ReportService;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +9,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/reports")
@@ -16,13 +17,14 @@ import java.time.LocalDate;
 public class ReportController {
 
     private final ReportService reportService;
-    private final UserMapper userMapper;
+
+    private static final int MAX_ACTIVITY_YEARS = 5;
 
     @GetMapping("/daily-summary")
     public DailySummaryResponse getDailySummary(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
 
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
@@ -32,20 +34,46 @@ public class ReportController {
     }
 
     @GetMapping("/mood-trend")
-    public String getMoodTrend(
-            @RequestParam(defaultValue = "last30days") String period) {
+    public ResponseEntity<String> getMoodTrend(
+            @RequestParam(defaultValue = "last30days") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
-        return reportService.getMoodTrend(currentUserId, period);
+        if (startDate == null && endDate == null) {
+            return ResponseEntity.ok(reportService.getMoodTrend(currentUserId, period));
+        }
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            return ResponseEntity.badRequest().body("startDate must not be after endDate");
+        }
+        return ResponseEntity.ok(reportService.getMoodTrend(currentUserId, startDate, endDate));
     }
 
 
+    @GetMapping("/activity")
+    public ResponseEntity<List<ActivityDay>> getActivity(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            throw new IllegalStateException("User not authenticated");
+        }
+
+        LocalDate end = (endDate == null) ? LocalDate.now() : endDate;
+        LocalDate start = (startDate == null) ? end.minusYears(1).plusDays(1) : startDate;
+        if (start.isAfter(end) || start.isBefore(end.minusYears(MAX_ACTIVITY_YEARS))) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(reportService.getActivity(currentUserId, start, end));
+    }
+
     @GetMapping("/today-mood-summary")
     public ResponseEntity<String> getTodayMoodSummary() {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
@@ -1,6 +1,5 @@
 package com.aidiary.controller;
 
-import com.aidiary.mapper.UserMapper;
 import com.aidiary.model.Task;
 import com.aidiary.security.SecurityUtils;
 import com.aidiary.service.TaskService;
@@ -15,11 +14,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskController {
     private final TaskService taskService;
-    private final UserMapper userMapper;
 
     @GetMapping
     public List<Task> getTasks(@RequestParam(required = false) String status) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new IllegalStateException("User not authenticated");
         }
@@ -28,7 +26,7 @@ public class TaskController {
 
     @GetMapping("/{taskId}")
     public ResponseEntity<Task> getTaskById(@PathVariable Long taskId) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         Task task = taskService.findTaskById(taskId);
 
         if (task == null) {
@@ -42,14 +40,14 @@ public class TaskController {
 
     @PostMapping
     public Task createTask(@RequestBody Task task) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         task.setUserId(currentUserId);
         return taskService.createTask(task);
     }
 
     @PutMapping("/{taskId}")
     public ResponseEntity<Task> updateTask(@PathVariable Long taskId, @RequestBody Task taskDetails) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         Task existingTask = taskService.findTaskById(taskId);
 
         if (existingTask == null) {
@@ -65,7 +63,7 @@ public class TaskController {
 
     @DeleteMapping("/{taskId}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long taskId) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         Task existingTask = taskService.findTaskById(taskId);
 
         if (existingTask == null) {
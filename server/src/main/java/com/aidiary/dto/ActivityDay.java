@@ -0,0 +1,18 @@
+package com.aidiary.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class ActivityDay {
+    private LocalDate date;
+    private int diaryEntries;
+    private int tasksCreated;
+    private int tasksCompleted;
+
+    public ActivityDay(LocalDate date) {
+        this.date = date;
+    }
+}
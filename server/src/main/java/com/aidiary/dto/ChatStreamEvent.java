@@ -0,0 +1,36 @@
+package com.aidiary.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatStreamEvent {
+    public static final String TOKEN = "token";
+    public static final String TOOL = "tool";
+    public static final String DONE = "done";
+    public static final String ERROR = "error";
+
+    private String type;
+    private Object data;
+
+    public static ChatStreamEvent token(String text) {
+        return new ChatStreamEvent(TOKEN, text);
+    }
+
+    public static ChatStreamEvent tool(String toolName, Object result) {
+        return new ChatStreamEvent(TOOL, Map.of("tool", toolName, "result", result != null ? result : ""));
+    }
+
+    public static ChatStreamEvent done(String content) {
+        return new ChatStreamEvent(DONE, Map.of("content", content));
+    }
+
+    public static ChatStreamEvent error(String message) {
+        return new ChatStreamEvent(ERROR, Map.of("message", message));
+    }
+}
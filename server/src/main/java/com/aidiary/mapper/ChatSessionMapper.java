@@ -3,18 +3,25 @@ package com.aidiary.mapper;
 import com.aidiary.model.ChatSession;
 import com.aidiary.model.ChatMessage;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import java.util.List;
 
 @Mapper
 public interface ChatSessionMapper {
     void createSession(ChatSession session);
     List<ChatSession> getSessionsByUserId(Long userId);
+    ChatSession getLatestSessionByUserId(Long userId);
     ChatSession getSessionBySessionId(String sessionId);
+    ChatSession getSessionById(Long id);
+    void updateSessionSummary(@Param("id") Long id, @Param("summary") String summary, @Param("summarizedUntilId") Long summarizedUntilId);
     void updateSession(ChatSession session);
     void deleteSession(Long sessionId);
     
     void addMessage(ChatMessage message);
-    List<ChatMessage> getMessagesBySessionId(Long sessionId);
+    List<ChatMessage> getRecentMessagesBySessionId(@Param("sessionId") Long sessionId, @Param("limit") int limit);
+    List<ChatMessage> getMessagesBefore(@Param("sessionId") Long sessionId, @Param("beforeId") Long beforeId, @Param("limit") int limit);
+    List<ChatMessage> getMessagesBetween(@Param("sessionId") Long sessionId, @Param("afterId") Long afterId, @Param("beforeId") Long beforeId, @Param("limit") int limit);
+    List<ChatMessage> getMessagesAfter(@Param("sessionId") Long sessionId, @Param("afterId") Long afterId, @Param("limit") int limit);
     void deleteMessagesBySessionId(Long sessionId);
 }
 
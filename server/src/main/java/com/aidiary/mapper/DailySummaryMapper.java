@@ -0,0 +1,15 @@
+package com.aidiary.mapper;
+
+import com.aidiary.model.DailySummary;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import java.time.LocalDate;
+
+@Mapper
+public interface DailySummaryMapper {
+    DailySummary find(@Param("userId") Long userId, @Param("summaryDate") LocalDate summaryDate);
+    int insertPlaceholder(@Param("userId") Long userId, @Param("summaryDate") LocalDate summaryDate);
+    int saveIfUnchanged(@Param("userId") Long userId, @Param("summaryDate") LocalDate summaryDate, @Param("version") int version,
+                        @Param("inputFingerprint") String inputFingerprint, @Param("summaryJson") String summaryJson);
+    int markStale(@Param("userId") Long userId, @Param("summaryDate") LocalDate summaryDate);
+}
@@ -1,5 +1,6 @@
 package com.aidiary.mapper;
 
+import com.aidiary.dto.ActivityDay;
 import com.aidiary.model.DiaryEntry;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -10,7 +11,22 @@ import java.util.List;
 public interface DiaryEntryMapper {
     DiaryEntry findById(@Param("id") Long id);
     List<DiaryEntry> findByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    List<ActivityDay> countEntriesByDay(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    List<DiaryEntry> findMoodsByUserIdAndDate(@Param("userId") Long userId, @Param("entryDate") LocalDate entryDate);
+    DiaryEntry findByDedupHash(@Param("userId") Long userId, @Param("entryDate") LocalDate entryDate,
+                               @Param("dedupHash") String dedupHash);
+    int releaseDedupHash(@Param("userId") Long userId, @Param("entryDate") LocalDate entryDate,
+                         @Param("dedupHash") String dedupHash, @Param("windowSeconds") long windowSeconds);
     int insert(DiaryEntry diaryEntry);
     int update(DiaryEntry diaryEntry);
     int delete(@Param("id") Long id);
+    int updateAiMood(@Param("entries") List<DiaryEntry> entries, @Param("aiMood") String aiMood);
+    List<DiaryEntry> findByIds(@Param("ids") List<Long> ids);
+    List<Long> findUnenrichedIds(@Param("limit") int limit);
+    int updateEnrichment(@Param("entries") List<DiaryEntry> entries);
+    int markEnriched(@Param("ids") List<Long> ids);
+    int claimProvisionalTitles(@Param("claim") String claim, @Param("limit") int limit,
+                               @Param("maxAttempts") int maxAttempts, @Param("retrySeconds") int retrySeconds);
+    List<DiaryEntry> findClaimedTitles(@Param("claim") String claim);
+    int updateProvisionalTitle(@Param("id") Long id, @Param("title") String title);
 }
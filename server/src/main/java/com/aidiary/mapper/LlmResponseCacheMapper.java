@@ -0,0 +1,10 @@
+package com.aidiary.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface LlmResponseCacheMapper {
+    String findResponse(@Param("cacheKey") String cacheKey);
+    int upsert(@Param("cacheKey") String cacheKey, @Param("templateId") String templateId, @Param("response") String response);
+}
@@ -0,0 +1,15 @@
+package com.aidiary.mapper;
+
+import com.aidiary.model.MoodDaily;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface MoodDailyMapper {
+    List<MoodDaily> findByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    List<MoodDaily> findMissingDays(@Param("limit") int limit);
+    int upsert(MoodDaily moodDaily);
+    int delete(@Param("userId") Long userId, @Param("moodDate") LocalDate moodDate);
+}
@@ -0,0 +1,23 @@
+package com.aidiary.mapper;
+
+import com.aidiary.model.NotificationOutbox;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface NotificationOutboxMapper {
+    int insertAll(@Param("notifications") List<NotificationOutbox> notifications);
+    int claimDue(@Param("owner") String owner, @Param("now") LocalDateTime now,
+                 @Param("leaseSeconds") int leaseSeconds, @Param("limit") int limit);
+    List<NotificationOutbox> findClaimedBy(@Param("owner") String owner, @Param("now") LocalDateTime now);
+    int renewClaim(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                   @Param("leaseSeconds") int leaseSeconds);
+    int releaseClaim(@Param("id") Long id, @Param("owner") String owner);
+    int markDelivered(@Param("ids") List<Long> ids, @Param("owner") String owner);
+    int markFailed(@Param("id") Long id, @Param("owner") String owner, @Param("status") String status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+    List<NotificationOutbox> findByUserIdAndChannel(@Param("userId") Long userId, @Param("channel") String channel,
+                                                    @Param("limit") int limit);
+}
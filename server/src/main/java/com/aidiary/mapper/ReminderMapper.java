@@ -12,6 +12,12 @@ public interface ReminderMapper {
     List<Reminder> findByUserId(@Param("userId") Long userId);
     int delete(@Param("id") Long id);
     Reminder findById(@Param("id") Long id);
-    List<Reminder> findDueReminders(@Param("currentTime") LocalDateTime currentTime);
-    int markAsSent(@Param("id") Long id);
+    int claimUpcoming(@Param("owner") String owner, @Param("until") LocalDateTime until, @Param("now") LocalDateTime now,
+                      @Param("leaseSeconds") int leaseSeconds, @Param("limit") int limit);
+    int claimReminders(@Param("ids") List<Long> ids, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                       @Param("leaseSeconds") int leaseSeconds);
+    List<Reminder> findClaimedBy(@Param("owner") String owner, @Param("now") LocalDateTime now);
+    List<Reminder> findOwned(@Param("ids") List<Long> ids, @Param("owner") String owner);
+    int markAsSent(@Param("ids") List<Long> ids, @Param("owner") String owner);
+    int releaseClaims(@Param("owner") String owner);
 }
\ No newline at end of file
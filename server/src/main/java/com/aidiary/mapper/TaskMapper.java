@@ -1,5 +1,6 @@
 package com.aidiary.mapper;
 
+import com.aidiary.dto.ActivityDay;
 import com.aidiary.model.Task;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -14,4 +15,5 @@ public interface TaskMapper {
     int update(Task task);
     int delete(@Param("id") Long id);
     List<Task> findByUserIdAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+    List<ActivityDay> countActivityByDay(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
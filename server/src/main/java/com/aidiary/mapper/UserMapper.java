@@ -9,4 +9,6 @@ public interface UserMapper {
     User findById(@Param("id") Long id);
     User findByUsername(@Param("username") String username);
     int insert(User user);
+    Integer findTokenVersion(@Param("id") Long id);
+    int incrementTokenVersion(@Param("id") Long id);
 }
@@ -14,6 +14,7 @@ public class ChatMessage {
     private String role; // "user" or "assistant"
     private String content;
     private LocalDateTime timestamp;
+    private Integer tokenCount;
 }
 
 
@@ -16,6 +16,8 @@ public class ChatSession {
     private String title;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private String summary;
+    private Long summarizedUntilId;
     private List<ChatMessage> messages;
 }
 
@@ -0,0 +1,16 @@
+package com.aidiary.model;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class DailySummary {
+    private Long userId;
+    private LocalDate summaryDate;
+    private String inputFingerprint;
+    private String summaryJson;
+    private Boolean stale;
+    private Integer version;
+    private LocalDateTime generatedAt;
+}
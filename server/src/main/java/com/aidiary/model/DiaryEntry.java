@@ -9,10 +9,15 @@ public class DiaryEntry {
     private Long id;
     private Long userId;
     private String title;
+    private Boolean titleProvisional;
     private String content;
+    private String contentHash;
+    private String dedupHash;
     private String mood;
+    private String aiMood;
     private LocalDate entryDate;
     private Float aiSentimentScore;
+    private LocalDateTime aiEnrichedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.aidiary.model;
+
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+public class MoodDaily {
+    private Long userId;
+    private LocalDate moodDate;
+    private Integer entryCount;
+    private String moodCounts;
+    private String dominantMood;
+    private Double avgSentiment;
+}
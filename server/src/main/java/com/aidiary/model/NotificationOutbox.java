@@ -0,0 +1,23 @@
+package com.aidiary.model;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class NotificationOutbox {
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_DELIVERED = "delivered";
+    public static final String STATUS_DEAD = "dead";
+
+    private Long id;
+    private Long reminderId;
+    private Long userId;
+    private String channel;
+    private String payload;
+    private String status;
+    private Integer attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime deliveredAt;
+}
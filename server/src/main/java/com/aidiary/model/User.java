@@ -9,6 +9,7 @@ public class User {
     private String username;
     private String email;
     private String passwordHash;
+    private Integer tokenVersion;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.aidiary.notification;
+
+import com.aidiary.mapper.UserMapper;
+import com.aidiary.model.NotificationOutbox;
+import com.aidiary.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+    public static final String NAME = "email";
+
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String apiUrl;
+    private final String apiKey;
+    private final String from;
+    private final Duration timeout;
+
+    public EmailNotificationChannel(UserMapper userMapper, ObjectMapper objectMapper,
+                                    @Value("${notifications.email.api-url:}") String apiUrl,
+                                    @Value("${notifications.email.api-key:}") String apiKey,
+                                    @Value("${notifications.email.from:no-reply@moodicat.app}") String from,
+                                    @Value("${notifications.email.timeout:10000}") long timeoutMillis) {
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.from = from;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(NotificationOutbox notification) throws Exception {
+        if (apiUrl == null || apiUrl.isBlank()) {
+            throw new IllegalStateException("notifications.email.api-url is not configured");
+        }
+        User user = userMapper.findById(notification.getUserId());
+        if (user == null || user.getEmail() == null || user.getEmail().isBlank()) {
+            throw new IllegalStateException("User " + notification.getUserId() + " has no email address");
+        }
+
+        String message = objectMapper.readTree(notification.getPayload()).path("message").asText("You have a reminder.");
+        String body = objectMapper.writeValueAsString(Map.of(
+                "from", from,
+                "to", user.getEmail(),
+                "subject", "MoodiCat reminder",
+                "text", message));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Email API responded with status " + response.statusCode());
+        }
+    }
+}
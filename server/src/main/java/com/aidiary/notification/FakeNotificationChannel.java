@@ -0,0 +1,37 @@
+package com.aidiary.notification;
+
+import com.aidiary.model.NotificationOutbox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@Slf4j
+public class FakeNotificationChannel implements NotificationChannel {
+    public static final String NAME = "fake";
+
+    @Value("${notifications.fake.latency-ms:100}")
+    private long latencyMs;
+
+    @Value("${notifications.fake.failure-rate:0.0}")
+    private double failureRate;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(NotificationOutbox notification) throws Exception {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated delivery failure");
+        }
+        log.info("=== Sending Reminder Notification (Simulation) === user={}, payload={}",
+                notification.getUserId(), notification.getPayload());
+    }
+}
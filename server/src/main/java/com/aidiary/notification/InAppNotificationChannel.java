@@ -0,0 +1,22 @@
+package com.aidiary.notification;
+
+import com.aidiary.model.NotificationOutbox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class InAppNotificationChannel implements NotificationChannel {
+    public static final String NAME = "in_app";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(NotificationOutbox notification) {
+        // The delivered outbox row is the in-app notification; clients read it from /reminders/notifications.
+        log.debug("In-app notification {} ready for user {}", notification.getId(), notification.getUserId());
+    }
+}
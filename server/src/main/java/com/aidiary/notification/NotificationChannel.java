@@ -0,0 +1,10 @@
+package com.aidiary.notification;
+
+import com.aidiary.model.NotificationOutbox;
+
+public interface NotificationChannel {
+
+    String getName();
+
+    void send(NotificationOutbox notification) throws Exception;
+}
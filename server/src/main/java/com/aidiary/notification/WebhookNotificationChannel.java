@@ -0,0 +1,49 @@
+package com.aidiary.notification;
+
+import com.aidiary.model.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+@Component
+public class WebhookNotificationChannel implements NotificationChannel {
+    public static final String NAME = "webhook";
+
+    private final HttpClient httpClient;
+    private final String url;
+    private final Duration timeout;
+
+    public WebhookNotificationChannel(@Value("${notifications.webhook.url:}") String url,
+                                      @Value("${notifications.webhook.timeout:5000}") long timeoutMillis) {
+        this.url = url;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(NotificationOutbox notification) throws Exception {
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("notifications.webhook.url is not configured");
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", "notification-" + notification.getId())
+                .POST(HttpRequest.BodyPublishers.ofString(notification.getPayload()))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Webhook responded with status " + response.statusCode());
+        }
+    }
+}
@@ -1,47 +1,73 @@
 package com.aidiary.security;
 
+import com.aidiary.cache.LruCache;
+import com.aidiary.mapper.UserMapper;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.Base64;
-import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${security.jwt.token.secret-key:secret-key}")
     private String secretKeyPlain = "secret-key";
 
     @Value("${security.jwt.token.expire-length:3600000}")
     private long validityInMilliseconds = 3600000;
 
+    @Value("${security.jwt.token.cache-size:10000}")
+    private int verifiedTokenCacheSize = 10000;
+
+    @Value("${security.jwt.token.version-cache-ttl:30000}")
+    private long tokenVersionCacheTtlMillis = 30000;
+
     private Key key;
-    private final UserDetailsService userDetailsService;
+    private JwtParser parser;
+    private final UserMapper userMapper;
+    private LruCache<Long, Integer> minimumTokenVersions;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
 
-    public JwtTokenProvider(UserDetailsService userDetailsService) {
-        this.userDetailsService = userDetailsService;
+    public JwtTokenProvider(UserMapper userMapper) {
+        this.userMapper = userMapper;
+    }
+
+    private record VerifiedToken(JwtUserPrincipal principal, long expiresAtMillis) {
     }
 
     @PostConstruct
     protected void init() {
         byte[] keyBytes = Base64.getEncoder().encode(secretKeyPlain.getBytes());
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.minimumTokenVersions = new LruCache<>(verifiedTokenCacheSize, tokenVersionCacheTtlMillis);
     }
 
-    public String createToken(String username) {
+    public String createToken(Long userId, String username, int tokenVersion) {
         Claims claims = Jwts.claims().setSubject(username);
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
 
         Date now = new Date();
         Date validity = new Date(now.getTime() + validityInMilliseconds);
@@ -54,13 +80,39 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getUsername(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    public Authentication authenticate(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null && cached.expiresAtMillis() <= now) {
+            verifiedTokens.remove(digest, cached);
+            cached = null;
+        }
+
+        JwtUserPrincipal principal;
+        if (cached != null) {
+            principal = cached.principal();
+        } else {
+            Claims claims;
+            try {
+                claims = parser.parseClaimsJws(token).getBody();
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+            principal = toPrincipal(claims);
+            cacheVerifiedToken(digest, principal, claims.getExpiration());
+        }
+
+        checkNotRevoked(principal);
+        return new UsernamePasswordAuthenticationToken(principal, "", principal.getAuthorities());
     }
 
-    public String getUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    public void revokeTokensBefore(Long userId, int tokenVersion) {
+        Integer known = minimumTokenVersions.get(userId);
+        minimumTokenVersions.put(userId, known != null ? Math.max(known, tokenVersion) : tokenVersion);
+        verifiedTokens.values().removeIf(v -> v.principal().getUserId().equals(userId)
+                && v.principal().getTokenVersion() < tokenVersion);
     }
 
     public String resolveToken(HttpServletRequest req) {
@@ -71,12 +123,59 @@ public class JwtTokenProvider {
         return null;
     }
 
-    public boolean validateToken(String token) {
+    @Scheduled(fixedDelayString = "${security.jwt.token.cache-purge-interval:60000}")
+    public void purgeExpiredTokens() {
+        long now = System.currentTimeMillis();
+        verifiedTokens.values().removeIf(v -> v.expiresAtMillis() <= now);
+    }
+
+    private JwtUserPrincipal toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            throw new IllegalArgumentException("Token does not carry a user id, please log in again");
+        }
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        int tokenVersion = version != null ? version.intValue() : 0;
+        return new JwtUserPrincipal(userId.longValue(), claims.getSubject(), tokenVersion);
+    }
+
+    private void checkNotRevoked(JwtUserPrincipal principal) {
+        if (principal.getTokenVersion() < minimumTokenVersion(principal.getUserId())) {
+            throw new IllegalArgumentException("Token has been revoked");
+        }
+    }
+
+    private int minimumTokenVersion(Long userId) {
+        Integer version = minimumTokenVersions.get(userId);
+        if (version == null) {
+            version = userMapper.findTokenVersion(userId);
+            if (version == null) {
+                throw new IllegalArgumentException("User no longer exists");
+            }
+            minimumTokenVersions.put(userId, version);
+        }
+        return version;
+    }
+
+    private void cacheVerifiedToken(String digest, JwtUserPrincipal principal, Date expiration) {
+        if (expiration == null || verifiedTokenCacheSize <= 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedTokenCacheSize) {
+            purgeExpiredTokens();
+            if (verifiedTokens.size() >= verifiedTokenCacheSize) {
+                return;
+            }
+        }
+        verifiedTokens.put(digest, new VerifiedToken(principal, expiration.getTime()));
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
\ No newline at end of file
+}
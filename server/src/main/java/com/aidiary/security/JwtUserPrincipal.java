@@ -0,0 +1,32 @@
+package com.aidiary.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+@Getter
+public class JwtUserPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final int tokenVersion;
+
+    public JwtUserPrincipal(Long userId, String username, int tokenVersion) {
+        this.userId = userId;
+        this.username = username;
+        this.tokenVersion = tokenVersion;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
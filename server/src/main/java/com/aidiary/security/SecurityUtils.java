@@ -3,20 +3,20 @@ package com.aidiary.security;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import com.aidiary.model.User;
-import com.aidiary.mapper.UserMapper;
 
 public class SecurityUtils {
 
-    public static Long getCurrentUserId(UserMapper userMapper) {
+    public static Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || authentication.getPrincipal().equals("anonymousUser")) {
+        if (authentication == null || !authentication.isAuthenticated()) {
             return null;
         }
-        String username = ((UserDetails) authentication.getPrincipal()).getUsername();
-        User user = userMapper.findByUsername(username);
-        return (user != null) ? user.getId() : null;
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal.getUserId();
+        }
+        return null;
     }
+
     public static String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated() || authentication.getPrincipal().equals("anonymousUser")) {
@@ -24,4 +24,4 @@ public class SecurityUtils {
         }
         return ((UserDetails) authentication.getPrincipal()).getUsername();
     }
-}
\ No newline at end of file
+}
@@ -1,27 +1,35 @@
 package com.aidiary.service;
 
-import com.aidiary.mapper.UserMapper;
+import com.aidiary.dto.ChatStreamEvent;
 import com.aidiary.model.ChatSession;
-import com.aidiary.model.ChatMessage;
-import com.aidiary.model.DiaryEntry;
 import com.aidiary.security.SecurityUtils;
-import com.aidiary.service.DiaryEntryService;
 import com.aidiary.tools.DiaryTools;
+import com.aidiary.tools.ObservedToolCallback;
 import com.aidiary.tools.TaskTools;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.aidiary.tools.ToolResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 @Service
 @RequiredArgsConstructor
@@ -29,15 +37,25 @@ import java.util.List;
 public class AiService {
 
     private final ChatClient chatClient;
-    private final UserMapper userMapper;
     private final ChatSessionService chatSessionService;
+    private final ChatContextBuilder chatContextBuilder;
+    private final ToolExecutionEngine toolExecutionEngine;
     private final DiaryTools diaryTools;
     private final TaskTools taskTools;
-    private final DiaryEntryService diaryEntryService;
+    private final LlmExecutor llmExecutor;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile List<ToolCallback> toolCallbacks;
+
+    public CompletableFuture<String> processChatMessageAsync(String message) {
+        return llmExecutor.submit(() -> processChatMessage(message));
+    }
+
+    public CompletableFuture<String> processChatMessageAsync(String message, Runnable onFinished) {
+        return llmExecutor.submit(() -> processChatMessage(message), onFinished);
+    }
 
     public String processChatMessage(String message) {
-        Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             log.warn("Unauthorized access attempt to AI chat");
             throw new SecurityException("User not authenticated");
@@ -51,171 +69,20 @@ public class AiService {
 
             chatSessionService.addMessage(sessionId, "user", message);
 
-            List<ChatMessage> dbHistory = chatSessionService.getSessionMessages(sessionId);
+            List<Message> recentHistory = loadRecentHistory(sessionId);
 
-            log.info("Calling AI with {} history messages, user message: {}", dbHistory.size(), message);
-            
-            List<Message> aiHistory = new ArrayList<>();
-            for (ChatMessage msg : dbHistory) {
-                if ("user".equals(msg.getRole())) {
-                    aiHistory.add(new UserMessage(msg.getContent()));
-                } else if ("assistant".equals(msg.getRole())) {
-                    aiHistory.add(new AssistantMessage(msg.getContent()));
-                }
-            }
+            log.info("Calling AI with {} history messages, user message: {}", recentHistory.size(), message);
 
-            int recentHistorySize = Math.min(10, aiHistory.size());
-            List<Message> recentHistory = aiHistory.subList(Math.max(0, aiHistory.size() - recentHistorySize), aiHistory.size());
-            
-            log.debug("Using {} recent messages for context", recentHistory.size());
-            var chatResponse = chatClient.prompt()
-                    .messages(recentHistory)
-                    .tools(diaryTools, taskTools)
-                    .call();
-            
-            log.debug("Chat response received, extracting content...");
-            
-            String response = chatResponse.content();
-            
-            log.info("AI response extracted, length: {}, preview: {}", 
-                    response != null ? response.length() : 0,
-                    response != null && response.length() > 50 ? response.substring(0, 50) + "..." : response);
-            
-            if (response == null) {
-                log.error("AI response content is null! Full response: {}", chatResponse);
-                response = "Sorry, I couldn't generate a response. Please try again.";
-            }
-            
-            boolean isToolCallJson = response.startsWith("{") && response.contains("tool_name") && response.contains("parameters");
-            boolean hasToolError = response.contains("参数不能为空") || response.contains("content 字段是必需的") || 
-                                  (response.contains("append_diary") || response.contains("create_task")) && 
-                                  response.contains("ERROR");
-            
-            boolean alreadyExecuted = response.contains("OK id=") || 
-                                     (response.contains("成功") && (response.contains("id=") || response.contains("已保存")));
-            
-            boolean claimsDiarySaved = (response.contains("日记已成功记录") || response.contains("日记已记录") || 
-                                       response.contains("成功记录") || response.contains("已保存")) &&
-                                       !response.contains("tool_name") && !alreadyExecuted;
-            
-            if (claimsDiarySaved && !isToolCallJson && !alreadyExecuted) {
-                log.warn("AI claimed diary was saved but no tool was called! Extracting info from message and executing tool manually...");
-                try {
-                    String diaryContent = extractDiaryContent(message);
-                    if (diaryContent != null && !diaryContent.trim().isEmpty()) {
-                        String title = extractTitleFromResponse(response);
-                        if (title == null || title.trim().isEmpty()) {
-                            log.info("No title provided, generating title with AI...");
-                            title = generateDiaryTitle(diaryContent);
-                        }
-                        
-                        String diaryJson;
-                        if (title != null && !title.trim().isEmpty()) {
-                            diaryJson = String.format("{\"title\":\"%s\",\"content\":\"%s\"}", 
-                                    title.replace("\"", "\\\""), 
-                                    diaryContent.replace("\"", "\\\""));
-                        } else {
-                            diaryJson = String.format("{\"content\":\"%s\"}", diaryContent.replace("\"", "\\\""));
-                        }
-                        
-                        log.info("Manually executing append_diary with title={}, content={}", title, diaryContent);
-                        
-                        String toolResult = diaryTools.append_diary(diaryJson);
-                        log.info("Manual diary tool execution result: {}", toolResult);
-                        
-                        if (toolResult.startsWith("OK")) {
-                            response = "我已经成功为您记录了日记！" + (title != null ? "标题：" + title + "。 " : "") + toolResult;
-                        } else {
-                            response = "尝试记录日记时出现问题：" + toolResult;
-                        }
-                    } else {
-                        log.warn("Could not extract diary content from message: {}", message);
-                    }
-                } catch (Exception e) {
-                    log.error("Error manually executing diary tool: {}", e.getMessage(), e);
-                }
-            } else if (isToolCallJson && !alreadyExecuted) {
-                log.info("Detected tool call request, parsing and executing tool...");
-                
-                try {
-                    JsonNode toolCallJson = objectMapper.readTree(response);
-                    String toolName = toolCallJson.get("tool_name").asText();
-                    JsonNode parameters = toolCallJson.get("parameters");
-                    
-                    log.info("Tool call detected: toolName={}, parameters={}", toolName, parameters);
-                    
-                    if ("append_diary".equals(toolName)) {
-                        String content = parameters.hasNonNull("content") ? parameters.get("content").asText() : "";
-                        if (!content.trim().isEmpty() && hasRecentlyCreatedDiaryEntry(currentUserId, content)) {
-                            log.warn("Found recently created diary entry with similar content, skipping duplicate execution");
-                            response = "日记已经成功记录！";
-                        } else {
-                            String parametersJson = objectMapper.writeValueAsString(parameters);
-                            
-                            JsonNode paramsNode = objectMapper.readTree(parametersJson);
-                            if (!paramsNode.hasNonNull("title") || paramsNode.get("title").asText().trim().isEmpty()) {
-                                if (!content.trim().isEmpty()) {
-                                    log.info("No title in append_diary parameters, generating title with AI...");
-                                    String generatedTitle = generateDiaryTitle(content);
-                                    if (generatedTitle != null && !generatedTitle.trim().isEmpty()) {
-                                        ((com.fasterxml.jackson.databind.node.ObjectNode) paramsNode).put("title", generatedTitle);
-                                        parametersJson = objectMapper.writeValueAsString(paramsNode);
-                                        log.info("Generated title: {}", generatedTitle);
-                                    }
-                                }
-                            }
-                            
-                            String toolResult = executeTool(toolName, parametersJson);
-                            log.info("Tool execution result: {}", toolResult);
-                            
-                            recentHistory.add(new AssistantMessage(response));
-                            recentHistory.add(new UserMessage("Tool execution result: " + toolResult));
-                            
-                            log.info("Calling AI again with tool execution result...");
-                            var finalResponse = chatClient.prompt()
-                                    .messages(recentHistory)
-                                    .tools(diaryTools, taskTools)
-                                    .call();
-                            
-                            response = finalResponse.content();
-                            
-                            if (response != null && response.startsWith("{") && response.contains("tool_name")) {
-                                log.warn("AI returned another tool call after execution, using tool result as response");
-                                response = "我已经执行了操作：" + toolResult;
-                            }
-                        }
-                    } else {
-                        String parametersJson = objectMapper.writeValueAsString(parameters);
-                        String toolResult = executeTool(toolName, parametersJson);
-                        log.info("Tool execution result: {}", toolResult);
-                        
-                        recentHistory.add(new AssistantMessage(response));
-                        recentHistory.add(new UserMessage("Tool execution result: " + toolResult));
-                        
-                        log.info("Calling AI again with tool execution result...");
-                        var finalResponse = chatClient.prompt()
-                                .messages(recentHistory)
-                                .tools(diaryTools, taskTools)
-                                .call();
-                        
-                        response = finalResponse.content();
-                        
-                        if (response != null && response.startsWith("{") && response.contains("tool_name")) {
-                            log.warn("AI returned another tool call after execution, using tool result as response");
-                            response = "我已经执行了操作：" + toolResult;
-                        }
-                    }
-                    
-                } catch (Exception e) {
-                    log.error("Error executing tool manually: {}", e.getMessage(), e);
-                    response = "处理您的请求时出现错误：" + e.getMessage();
-                }
-            } else if (hasToolError) {
-                log.warn("Detected tool execution error in response, trying to extract and retry tool call...");
-                log.warn("Tool execution failed. Response: {}", response.substring(0, Math.min(200, response.length())));
-            }
-            
+            ToolExecutionEngine.TurnResult turn = toolExecutionEngine.run(recentHistory, toolCallbacks());
+            String response = turn.reply();
             if (response == null || response.trim().isEmpty()) {
+                response = composeReply(turn.modelText(), turn.toolResponses(), message);
+            }
+
+            log.info("AI response extracted, length: {}, llmCalls: {}, toolCalls: {}",
+                    response.length(), turn.llmCalls(), turn.toolCalls());
+
+            if (response.trim().isEmpty()) {
                 response = "我已经为您处理了请求。请查看是否操作成功完成。";
             }
 
@@ -229,112 +96,193 @@ public class AiService {
             throw new RuntimeException("Failed to process AI chat message", e);
         }
     }
-    
-    private String executeTool(String toolName, String parametersJson) {
-        log.info("Executing tool: {} with parameters: {}", toolName, parametersJson);
-        
-        try {
-            switch (toolName) {
-                case "create_task":
-                    return taskTools.create_task(parametersJson);
-                case "update_task":
-                    return taskTools.update_task(parametersJson);
-                case "list_tasks":
-                    return taskTools.list_tasks(parametersJson);
-                case "append_diary":
-                    return diaryTools.append_diary(parametersJson);
-                case "set_reminder":
-                    return diaryTools.set_reminder(parametersJson);
-                default:
-                    log.error("Unknown tool name: {}", toolName);
-                    return "ERROR: Unknown tool: " + toolName;
+
+    public Flux<ChatStreamEvent> streamChatMessage(String message) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            log.warn("Unauthorized access attempt to AI chat stream");
+            throw new SecurityException("User not authenticated");
+        }
+
+        log.info("Processing streaming AI chat message from user ID: {}", currentUserId);
+
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+
+        ChatSession session = chatSessionService.getOrCreateCurrentSession(currentUserId);
+        Long sessionId = session.getId();
+        chatSessionService.addMessage(sessionId, "user", message);
+        List<Message> recentHistory = loadRecentHistory(sessionId);
+
+        return Flux.create(sink -> {
+            StringBuilder reply = new StringBuilder();
+            List<ToolResponseMessage.ToolResponse> directResponses = new ArrayList<>();
+            AtomicInteger toolCalls = new AtomicInteger();
+            List<ToolCallback> toolCallbacks = observedToolCallbacks(securityContext, (callback, result) -> {
+                toolCalls.incrementAndGet();
+                String toolName = callback.getToolDefinition().name();
+                if (callback.getToolMetadata().returnDirect()) {
+                    synchronized (directResponses) {
+                        directResponses.add(new ToolResponseMessage.ToolResponse(null, toolName, result));
+                    }
+                }
+                ToolResult structured = parseToolResult(result);
+                sink.next(ChatStreamEvent.tool(toolName, structured != null ? structured : unquote(result)));
+            });
+
+            Disposable subscription = chatClient.prompt()
+                    .messages(recentHistory)
+                    .toolCallbacks(toolCallbacks)
+                    .stream()
+                    .chatResponse()
+                    .doOnNext(chatResponse -> {
+                        String chunk = modelText(chatResponse);
+                        if (chunk.isEmpty()) {
+                            return;
+                        }
+                        reply.append(chunk);
+                        sink.next(ChatStreamEvent.token(chunk));
+                    })
+                    .publishOn(Schedulers.boundedElastic())
+                    .then()
+                    .subscribe(null, error -> {
+                        log.error("Error streaming AI chat message: {}", error.getMessage(), error);
+                        sink.next(ChatStreamEvent.error("Sorry, I'm having trouble processing your request. Please try again later."));
+                        sink.complete();
+                    }, () -> {
+                        String response = reply.toString();
+                        String confirmation;
+                        synchronized (directResponses) {
+                            confirmation = composeReply(null, directResponses, message);
+                        }
+                        if (!confirmation.isEmpty()) {
+                            String separator = response.isBlank() ? "" : "\n";
+                            sink.next(ChatStreamEvent.token(separator + confirmation));
+                            response = response + separator + confirmation;
+                        }
+                        if (response.trim().isEmpty()) {
+                            response = "我已经为您处理了请求。请查看是否操作成功完成。";
+                        }
+                        chatSessionService.addMessage(sessionId, "assistant", response);
+                        log.info("AI stream completed successfully, response length: {}, toolCalls: {}",
+                                response.length(), toolCalls.get());
+                        sink.next(ChatStreamEvent.done(response));
+                        sink.complete();
+                    });
+            sink.onDispose(subscription);
+        });
+    }
+
+    private String composeReply(String modelText, List<ToolResponseMessage.ToolResponse> toolResponses, String userMessage) {
+        boolean chinese = containsChinese(userMessage);
+        StringBuilder reply = new StringBuilder();
+        if (modelText != null && !modelText.isBlank()) {
+            reply.append(modelText.trim());
+        }
+        for (ToolResponseMessage.ToolResponse toolResponse : toolResponses) {
+            String description = describeToolResult(toolResponse.name(), toolResponse.responseData(), chinese);
+            if (reply.length() > 0) {
+                reply.append("\n");
             }
-        } catch (Exception e) {
-            log.error("Error executing tool {}: {}", toolName, e.getMessage(), e);
-            return "ERROR: " + e.getMessage();
+            reply.append(description);
         }
+        return reply.toString();
     }
-    
-    private String extractDiaryContent(String message) {
-        String content = message;
-        
-        String[] prefixes = {"记录日记", "写日记", "记日记", "记录", "日记"};
-        for (String prefix : prefixes) {
-            if (content.toLowerCase().contains(prefix.toLowerCase())) {
-                content = content.replaceFirst("(?i)" + prefix, "").trim();
-                content = content.replaceFirst("^[,，:：\\s]+", "");
+
+    // Direct tool output is echoed back by the model as generations finished with "returnDirect";
+    // those are rendered by composeReply instead of being streamed as raw JSON.
+    static String modelText(ChatResponse chatResponse) {
+        if (chatResponse == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Generation generation : chatResponse.getResults()) {
+            if (ToolExecutionResult.FINISH_REASON.equals(generation.getMetadata().getFinishReason())) {
+                continue;
             }
+            if (generation.getOutput() != null && generation.getOutput().getText() != null) {
+                text.append(generation.getOutput().getText());
+            }
+        }
+        return text.toString();
+    }
+
+    String describeToolResult(String toolName, String responseData, boolean chinese) {
+        ToolResult result = parseToolResult(responseData);
+        if (result == null || !result.ok()) {
+            String error = result != null && result.error() != null ? result.error() : "";
+            return chinese ? "操作未能完成：" + error : "I couldn't complete that: " + error;
+        }
+        String title = result.title();
+        switch (toolName) {
+            case "append_diary":
+                return chinese ? "我已经为您记录了日记" + (title != null ? "：《" + title + "》" : "。")
+                        : "I've saved your diary entry" + (title != null ? " \"" + title + "\"." : ".");
+            case "create_task":
+                return chinese ? "已为您创建任务：" + title : "I've created the task \"" + title + "\".";
+            case "update_task":
+                return chinese ? "已更新任务：" + title + "，状态：" + result.status()
+                        : "I've updated the task \"" + title + "\", status: " + result.status() + ".";
+            case "set_reminder":
+                return chinese ? "已为您设置提醒，时间：" + result.time()
+                        : "I've set a reminder for " + result.time() + ".";
+            default:
+                return unquote(responseData);
         }
-        
-        return content.trim();
     }
-    
-    private String extractTitleFromResponse(String response) {
+
+    private ToolResult parseToolResult(String responseData) {
+        if (responseData == null || !responseData.startsWith("{")) {
+            return null;
+        }
         try {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(?i)(?:标题|Title)[:：\\s]*\\*?([^*\\n]+)\\*?");
-            java.util.regex.Matcher matcher = pattern.matcher(response);
-            if (matcher.find()) {
-                String title = matcher.group(1).trim();
-                title = title.replaceAll("^\\*+|\\*+$", "").trim();
-                if (!title.isEmpty()) {
-                    return title;
-                }
-            }
+            return objectMapper.readValue(responseData, ToolResult.class);
         } catch (Exception e) {
-            log.debug("Failed to extract title from response: {}", e.getMessage());
+            log.warn("Unreadable tool result: {}", responseData);
+            return null;
         }
-        return null;
     }
-    
-    private String generateDiaryTitle(String content) {
-        try {
-            log.debug("Generating title for diary content: {}", content.substring(0, Math.min(50, content.length())));
-            
-            String titlePrompt = String.format("请为以下日记内容生成一个简洁的标题（不超过10个字，不要使用引号或特殊符号）：\n\n%s", content);
-            
-            String generatedTitle = chatClient.prompt()
-                    .user(titlePrompt)
-                    .call()
-                    .content();
-            
-            if (generatedTitle != null) {
-                generatedTitle = generatedTitle.replaceAll("[\"'\u201C\u201D\u2018\u2019\\*\\[\\]（()）]", "").trim();
-                if (generatedTitle.length() > 20) {
-                    generatedTitle = generatedTitle.substring(0, 20);
-                }
-                log.info("AI generated title: {}", generatedTitle);
-                return generatedTitle;
+
+    private String unquote(String value) {
+        if (value != null && value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return objectMapper.readValue(value, String.class);
+            } catch (Exception e) {
+                return value.substring(1, value.length() - 1);
             }
-        } catch (Exception e) {
-            log.error("Failed to generate title with AI: {}", e.getMessage(), e);
         }
-        
-        if (content != null && content.length() > 0) {
-            String fallbackTitle = content.length() > 10 ? content.substring(0, 10) + "..." : content;
-            log.info("Using fallback title: {}", fallbackTitle);
-            return fallbackTitle;
+        return value;
+    }
+
+    private boolean containsChinese(String text) {
+        return text != null && text.codePoints().anyMatch(c -> Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN);
+    }
+
+    // Scanning the tool objects for @Tool methods is reflective; the callbacks are stateless, so build them once.
+    private List<ToolCallback> toolCallbacks() {
+        List<ToolCallback> callbacks = toolCallbacks;
+        if (callbacks == null) {
+            callbacks = List.of(MethodToolCallbackProvider.builder()
+                    .toolObjects(diaryTools, taskTools)
+                    .build()
+                    .getToolCallbacks());
+            toolCallbacks = callbacks;
         }
-        
-        return "今日记录";
+        return callbacks;
     }
-    
-    private boolean hasRecentlyCreatedDiaryEntry(Long userId, String content) {
-        try {
-            LocalDate today = LocalDate.now();
-            List<DiaryEntry> todayEntries = diaryEntryService.findDiaryEntries(userId, today, today);
-            
-            LocalDateTime cutoffTime = LocalDateTime.now().minusSeconds(30);
-            for (DiaryEntry entry : todayEntries) {
-                if (entry.getContent() != null && entry.getContent().trim().equals(content.trim())) {
-                    if (entry.getCreatedAt() != null && entry.getCreatedAt().isAfter(cutoffTime)) {
-                        log.info("Found duplicate diary entry created at {} with same content", entry.getCreatedAt());
-                        return true;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error checking for duplicate diary entries: {}", e.getMessage(), e);
+
+    private List<ToolCallback> observedToolCallbacks(SecurityContext securityContext, BiConsumer<ToolCallback, String> onResult) {
+        List<ToolCallback> callbacks = toolCallbacks();
+        List<ToolCallback> observed = new ArrayList<>(callbacks.size());
+        for (ToolCallback callback : callbacks) {
+            observed.add(new ObservedToolCallback(callback, securityContext, onResult));
         }
-        return false;
+        return observed;
+    }
+
+    private List<Message> loadRecentHistory(Long sessionId) {
+        List<Message> recentHistory = chatContextBuilder.build(sessionId);
+        log.debug("Using {} context messages", recentHistory.size());
+        return recentHistory;
     }
-}
\ No newline at end of file
+}
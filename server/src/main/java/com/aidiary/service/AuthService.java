@@ -48,10 +48,11 @@ public class AuthService {
         try {
             authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
 
-            String token = jwtTokenProvider.createToken(username);
+            User user = userMapper.findByUsername(username);
+            int tokenVersion = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+            String token = jwtTokenProvider.createToken(user.getId(), user.getUsername(), tokenVersion);
             log.info("Login successful, token generated for user: {}", username);
 
-            User user = userMapper.findByUsername(username);
             LoginResponse.UserInfo userInfo = new LoginResponse.UserInfo(user.getId(), user.getUsername(), user.getEmail());
             return new LoginResponse(token, userInfo);
 
@@ -63,10 +64,27 @@ public class AuthService {
             return null;
         }
     }
+
+    @Transactional
+    public boolean revokeAllTokens() {
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId == null) {
+            return false;
+        }
+        userMapper.incrementTokenVersion(userId);
+        User user = userMapper.findById(userId);
+        if (user == null) {
+            return false;
+        }
+        jwtTokenProvider.revokeTokensBefore(userId, user.getTokenVersion());
+        log.info("Revoked all tokens for user id={}, new token version={}", userId, user.getTokenVersion());
+        return true;
+    }
+
     public User getMe() {
-        String username = SecurityUtils.getCurrentUsername();
-        if (username != null) {
-            User user = userMapper.findByUsername(username);
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId != null) {
+            User user = userMapper.findById(userId);
             if (user != null) {
                 user.setPasswordHash(null);
             }
@@ -0,0 +1,40 @@
+package com.aidiary.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Runs scheduled enrichment and titling batches on their own small pool, so a backlog sweep never takes
+// the permits or queue slots that interactive /ai/chat requests are admitted against.
+@Component
+public class BackgroundLlmExecutor {
+
+    @Value("${ai.background.executor.concurrency:1}")
+    private int concurrency;
+
+    @Value("${ai.background.executor.queue-capacity:2}")
+    private int queueCapacity;
+
+    @Value("${ai.background.executor.timeout:180000}")
+    private long timeoutMillis;
+
+    private LlmExecutor pool;
+
+    @PostConstruct
+    protected void init() {
+        pool = LlmExecutor.create("llm-background-", concurrency, queueCapacity, timeoutMillis);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task, Runnable onFinished) {
+        return pool.submit(task, onFinished);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,41 @@
+package com.aidiary.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatContextBuilder {
+
+    private final SessionContextMemory sessionContextMemory;
+    private final ConversationSummarizer conversationSummarizer;
+
+    @Value("${chat.context.token-budget:2000}")
+    private int tokenBudget;
+
+    public List<Message> build(Long sessionId) {
+        SessionContextMemory.ContextSnapshot context = sessionContextMemory.getContext(sessionId, tokenBudget);
+
+        List<Message> prompt = new ArrayList<>();
+        if (context.summary() != null && !context.summary().isBlank()) {
+            prompt.add(new SystemMessage("Summary of the earlier conversation:\n" + context.summary()));
+        }
+        prompt.addAll(context.messages());
+
+        if (context.foldUntilId() != null) {
+            conversationSummarizer.refreshAsync(sessionId, context.foldUntilId());
+        }
+
+        log.debug("Built context for session {}: {} messages, {} tokens, summary={}",
+                sessionId, context.messages().size(), context.tokens(), context.summary() != null);
+        return prompt;
+    }
+}
@@ -1,10 +1,13 @@
 package com.aidiary.service;
 
+import com.aidiary.cache.LruCache;
 import com.aidiary.mapper.ChatSessionMapper;
 import com.aidiary.model.ChatSession;
 import com.aidiary.model.ChatMessage;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,6 +18,20 @@ import java.util.UUID;
 @Slf4j
 public class ChatSessionService {
     private final ChatSessionMapper chatSessionMapper;
+    private final SessionContextMemory sessionContextMemory;
+
+    @Value("${chat.session.current-cache-size:10000}")
+    private int currentSessionCacheSize;
+
+    @Value("${chat.session.current-cache-ttl:600000}")
+    private long currentSessionCacheTtlMillis;
+
+    private LruCache<Long, ChatSession> currentSessions;
+
+    @PostConstruct
+    protected void init() {
+        currentSessions = new LruCache<>(currentSessionCacheSize, currentSessionCacheTtlMillis);
+    }
 
     public ChatSession createSession(Long userId, String title) {
         String sessionId = UUID.randomUUID().toString();
@@ -28,6 +45,7 @@ public class ChatSessionService {
         session.setUpdatedAt(now);
         
         chatSessionMapper.createSession(session);
+        currentSessions.put(userId, session);
         log.info("Created new chat session: {} for user: {}", sessionId, userId);
         return session;
     }
@@ -46,23 +64,36 @@ public class ChatSessionService {
         message.setRole(role);
         message.setContent(content);
         message.setTimestamp(LocalDateTime.now());
+        message.setTokenCount(TokenEstimator.estimate(content));
         
         chatSessionMapper.addMessage(message);
+        sessionContextMemory.add(sessionId, message);
         log.info("Added message to session: {}, role: {}", sessionId, role);
         return message;
     }
 
-    public List<ChatMessage> getSessionMessages(Long sessionId) {
-        return chatSessionMapper.getMessagesBySessionId(sessionId);
+    public List<ChatMessage> getMessagesPage(Long sessionId, Long beforeId, Long afterId, int limit) {
+        if (afterId != null) {
+            return chatSessionMapper.getMessagesAfter(sessionId, afterId, limit);
+        }
+        if (beforeId != null) {
+            return chatSessionMapper.getMessagesBefore(sessionId, beforeId, limit);
+        }
+        return chatSessionMapper.getRecentMessagesBySessionId(sessionId, limit);
     }
 
     public ChatSession getOrCreateCurrentSession(Long userId) {
-        List<ChatSession> sessions = chatSessionMapper.getSessionsByUserId(userId);
-        
-        if (sessions.isEmpty()) {
+        ChatSession current = currentSessions.get(userId);
+        if (current != null) {
+            return current;
+        }
+
+        current = chatSessionMapper.getLatestSessionByUserId(userId);
+        if (current == null) {
             return createSession(userId, "New Chat");
         }
-        return sessions.get(0);
+        currentSessions.put(userId, current);
+        return current;
     }
 
     public void updateSessionTitle(Long sessionId, String title) {
@@ -77,6 +108,8 @@ public class ChatSessionService {
     public void deleteSession(Long sessionId) {
         chatSessionMapper.deleteMessagesBySessionId(sessionId);
         chatSessionMapper.deleteSession(sessionId);
+        sessionContextMemory.clear(sessionId);
+        currentSessions.removeIf((userId, session) -> sessionId.equals(session.getId()));
         log.info("Deleted session: {}", sessionId);
     }
 }
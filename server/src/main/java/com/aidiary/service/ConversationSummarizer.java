@@ -0,0 +1,112 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.ChatSessionMapper;
+import com.aidiary.model.ChatMessage;
+import com.aidiary.model.ChatSession;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationSummarizer {
+
+    private final ChatSessionMapper chatSessionMapper;
+    private final SessionContextMemory sessionContextMemory;
+    private final ChatModel chatModel;
+
+    @Value("${chat.context.summary-batch-size:100}")
+    private int batchSize;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100), new CustomizableThreadFactory("chat-summary-"),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    public void refreshAsync(Long sessionId, Long foldUntilId) {
+        if (!inFlight.add(sessionId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh(sessionId, foldUntilId);
+                } catch (Exception e) {
+                    log.error("Failed to refresh summary for session {}: {}", sessionId, e.getMessage(), e);
+                    sessionContextMemory.resetSummaryRequest(sessionId);
+                } finally {
+                    inFlight.remove(sessionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sessionId);
+            sessionContextMemory.resetSummaryRequest(sessionId);
+            log.warn("Summary queue is full, skipping summary refresh for session {}", sessionId);
+        }
+    }
+
+    private void refresh(Long sessionId, Long foldUntilId) {
+        ChatSession session = chatSessionMapper.getSessionById(sessionId);
+        if (session == null) {
+            return;
+        }
+        long summarizedUntil = session.getSummarizedUntilId() != null ? session.getSummarizedUntilId() : 0L;
+        List<ChatMessage> toFold = chatSessionMapper.getMessagesBetween(sessionId, summarizedUntil, foldUntilId, batchSize);
+        if (toFold.isEmpty()) {
+            return;
+        }
+
+        String transcript = toFold.stream()
+                .map(m -> m.getRole() + ": " + m.getContent())
+                .collect(Collectors.joining("\n"));
+
+        String systemPrompt = """
+            You maintain a running summary of a conversation between a user and their diary and task assistant.
+            Merge the new messages into the existing summary. Keep facts the assistant will need later:
+            diary topics, moods, tasks, dates, names and user preferences. Drop greetings and filler.
+            Answer in the language the user mostly writes in, at most 200 words, with no preamble.
+            """;
+
+        String userPrompt = String.format("Existing summary:\n%s\n\nNew messages:\n%s\n\nReturn the updated summary.",
+                session.getSummary() != null && !session.getSummary().isBlank() ? session.getSummary() : "(none)",
+                transcript);
+
+        String summary = ChatClient.builder(chatModel).build().prompt()
+                .system(systemPrompt)
+                .user(userPrompt)
+                .call()
+                .content();
+
+        if (summary == null || summary.trim().isEmpty()) {
+            log.warn("Empty summary returned for session {}", sessionId);
+            sessionContextMemory.resetSummaryRequest(sessionId);
+            return;
+        }
+
+        Long newSummarizedUntil = toFold.get(toFold.size() - 1).getId();
+        chatSessionMapper.updateSessionSummary(sessionId, summary.trim(), newSummarizedUntil);
+        sessionContextMemory.updateSummary(sessionId, summary.trim(), newSummarizedUntil);
+        log.info("Folded {} messages into summary for session {}, summarized until message {}",
+                toFold.size(), sessionId, newSummarizedUntil);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
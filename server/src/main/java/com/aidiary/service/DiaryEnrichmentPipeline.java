@@ -0,0 +1,233 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.model.DiaryEntry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class DiaryEnrichmentPipeline {
+
+    private static final int CONTENT_LIMIT = 500;
+
+    private final DiaryEntryMapper diaryEntryMapper;
+    private final MoodRollupService moodRollupService;
+    private final ChatClient chatClient;
+    private final BackgroundLlmExecutor llmExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<Long> queue;
+    // Held from the scheduler tick until the batch has finished on the background executor; it also publishes the
+    // rate-limit fields below between the two threads.
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long minCallIntervalMillis;
+    private final long maxBackoffMillis;
+
+    private long lastCallAt;
+    private long backoffUntil;
+    private int consecutiveFailures;
+
+    public DiaryEnrichmentPipeline(DiaryEntryMapper diaryEntryMapper,
+                                   MoodRollupService moodRollupService,
+                                   ChatModel chatModel,
+                                   BackgroundLlmExecutor llmExecutor,
+                                   @Value("${ai.enrichment.queue-capacity:1000}") int queueCapacity,
+                                   @Value("${ai.enrichment.batch-size:20}") int batchSize,
+                                   @Value("${ai.enrichment.max-attempts:3}") int maxAttempts,
+                                   @Value("${ai.enrichment.max-calls-per-minute:12}") int maxCallsPerMinute,
+                                   @Value("${ai.enrichment.max-backoff:600000}") long maxBackoffMillis) {
+        this.diaryEntryMapper = diaryEntryMapper;
+        this.moodRollupService = moodRollupService;
+        this.chatClient = ChatClient.builder(chatModel).build();
+        this.llmExecutor = llmExecutor;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.minCallIntervalMillis = 60_000L / Math.max(1, maxCallsPerMinute);
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public void enqueue(Long entryId) {
+        if (entryId != null && !queue.offer(entryId)) {
+            log.debug("Enrichment queue is full, entry {} will be picked up by the next sweep", entryId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.enrichment.sweep-interval:300000}")
+    public void sweepUnenriched() {
+        int room = queue.remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        Set<Long> queued = Set.copyOf(queue);
+        int added = 0;
+        for (Long id : diaryEntryMapper.findUnenrichedIds(room)) {
+            if (!queued.contains(id) && queue.offer(id)) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            log.info("Queued {} unenriched diary entries", added);
+        }
+    }
+
+    // The model call runs on the background LLM pool so neither the shared scheduler thread nor chat requests wait on it.
+    @Scheduled(fixedDelayString = "${ai.enrichment.drain-interval:5000}")
+    public void drain() {
+        if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now < backoffUntil || now - lastCallAt < minCallIntervalMillis) {
+            draining.set(false);
+            return;
+        }
+        try {
+            llmExecutor.submit(() -> {
+                drainBatch(now);
+                return null;
+            }, () -> draining.set(false));
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            log.debug("Background LLM executor is saturated, deferring diary enrichment");
+        }
+    }
+
+    private void drainBatch(long now) {
+        Set<Long> ids = new LinkedHashSet<>();
+        while (ids.size() < batchSize) {
+            Long id = queue.poll();
+            if (id == null) {
+                break;
+            }
+            ids.add(id);
+        }
+
+        List<DiaryEntry> entries = diaryEntryMapper.findByIds(new ArrayList<>(ids)).stream()
+                .filter(e -> e.getAiEnrichedAt() == null && e.getContent() != null && !e.getContent().isBlank())
+                .toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        lastCallAt = now;
+        try {
+            List<DiaryEntry> enriched = enrich(entries);
+            if (!enriched.isEmpty() && diaryEntryMapper.updateEnrichment(enriched) < enriched.size()) {
+                markUnwritten(enriched);
+            }
+            consecutiveFailures = 0;
+            entries.forEach(e -> attempts.remove(e.getId()));
+            Set<Long> enrichedIds = enriched.stream().map(DiaryEntry::getId).collect(Collectors.toSet());
+
+            List<Long> missing = entries.stream()
+                    .filter(e -> !enrichedIds.contains(e.getId()))
+                    .map(DiaryEntry::getId)
+                    .toList();
+            missing.forEach(this::retryOrGiveUp);
+
+            // Every enriched entry gets a new ai_sentiment_score, so its day's avg_sentiment is stale
+            // whether or not the entry carries a user mood label.
+            entries.stream()
+                    .filter(e -> enrichedIds.contains(e.getId()))
+                    .map(e -> Map.entry(e.getUserId(), e.getEntryDate()))
+                    .distinct()
+                    .forEach(day -> moodRollupService.refreshDaySafely(day.getKey(), day.getValue()));
+            log.info("Enriched {} of {} diary entries", enriched.size(), entries.size());
+        } catch (Exception e) {
+            consecutiveFailures++;
+            long backoff = Math.min(maxBackoffMillis, minCallIntervalMillis * (1L << Math.min(consecutiveFailures, 10)));
+            backoffUntil = now + backoff;
+            log.error("Diary enrichment batch failed, backing off for {}ms: {}", backoff, e.getMessage(), e);
+            entries.forEach(entry -> retryOrGiveUp(entry.getId()));
+        }
+    }
+
+    private List<DiaryEntry> enrich(List<DiaryEntry> entries) throws Exception {
+        String entriesData = entries.stream()
+                .map(e -> String.format("[%d] %s", e.getId(),
+                        e.getContent().substring(0, Math.min(e.getContent().length(), CONTENT_LIMIT)).replace("\n", " ")))
+                .collect(Collectors.joining("\n"));
+
+        String systemPrompt = """
+            You analyze diary entries. For each entry, rate its overall sentiment as a number from -1 (very negative) to 1 (very positive),
+            and name its mood with a single lowercase English word such as: happy, sad, neutral, anxious, grateful, stressed, calm, excited, tired, peaceful, content, frustrated, joyful, worried, relaxed, overwhelmed.
+            Respond with ONLY a JSON object mapping each entry id to its result, e.g. {"12":{"score":0.6,"mood":"happy"},"15":{"score":-0.4,"mood":"tired"}}.
+            """;
+
+        String response = chatClient.prompt()
+                .system(systemPrompt)
+                .user("Diary entries:\n" + entriesData)
+                .call()
+                .content();
+
+        JsonNode results = objectMapper.readTree(LlmResponseCache.stripCodeFence(response));
+        List<DiaryEntry> enriched = new ArrayList<>();
+        for (DiaryEntry entry : entries) {
+            JsonNode result = results.get(String.valueOf(entry.getId()));
+            if (result == null || !result.path("score").isNumber()) {
+                continue;
+            }
+            String mood = result.path("mood").asText("").replaceAll("[^\\p{L}]", "").toLowerCase();
+
+            DiaryEntry update = new DiaryEntry();
+            update.setId(entry.getId());
+            update.setContentHash(entry.getContentHash());
+            update.setAiSentimentScore((float) Math.max(-1, Math.min(1, result.path("score").asDouble())));
+            update.setAiMood(mood.isEmpty() ? null : mood);
+            enriched.add(update);
+        }
+        return enriched;
+    }
+
+    // Rows the content-hash guard skipped but that are still unenriched with the same content would be
+    // swept up again forever; entries edited meanwhile keep ai_enriched_at NULL for their new content.
+    private void markUnwritten(List<DiaryEntry> enriched) {
+        Map<Long, String> sentHashes = new HashMap<>();
+        enriched.forEach(e -> sentHashes.put(e.getId(), e.getContentHash()));
+        List<Long> stuck = diaryEntryMapper.findByIds(new ArrayList<>(sentHashes.keySet())).stream()
+                .filter(e -> e.getAiEnrichedAt() == null && Objects.equals(e.getContentHash(), sentHashes.get(e.getId())))
+                .map(DiaryEntry::getId)
+                .toList();
+        if (!stuck.isEmpty()) {
+            log.warn("Enrichment of diary entries {} was not written, marking them enriched", stuck);
+            diaryEntryMapper.markEnriched(stuck);
+        }
+    }
+
+    private void retryOrGiveUp(Long entryId) {
+        int attempt = attempts.merge(entryId, 1, Integer::sum);
+        if (attempt < maxAttempts && queue.offer(entryId)) {
+            return;
+        }
+        attempts.remove(entryId);
+        if (attempt >= maxAttempts) {
+            log.warn("Giving up enrichment of diary entry {} after {} attempts", entryId, attempt);
+            diaryEntryMapper.markEnriched(List.of(entryId));
+        }
+    }
+}
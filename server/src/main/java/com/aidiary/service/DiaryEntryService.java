@@ -1,16 +1,48 @@
 package com.aidiary.service;
 
+import com.aidiary.cache.LruCache;
+import com.aidiary.mapper.DailySummaryMapper;
 import com.aidiary.mapper.DiaryEntryMapper;
 import com.aidiary.model.DiaryEntry;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 
 @Service
-@RequiredArgsConstructor
 public class DiaryEntryService {
     private final DiaryEntryMapper diaryEntryMapper;
+    private final DailySummaryMapper dailySummaryMapper;
+    private final MoodRollupService moodRollupService;
+    private final SentimentScorer sentimentScorer;
+    private final DiaryEnrichmentPipeline diaryEnrichmentPipeline;
+    private final TransactionTemplate transactionTemplate;
+    private final LruCache<String, DiaryEntry> recentWrites;
+    private final long dedupWindowSeconds;
+
+    public record WriteResult(DiaryEntry entry, boolean created) {
+    }
+
+    public DiaryEntryService(DiaryEntryMapper diaryEntryMapper,
+                             DailySummaryMapper dailySummaryMapper,
+                             MoodRollupService moodRollupService,
+                             SentimentScorer sentimentScorer,
+                             DiaryEnrichmentPipeline diaryEnrichmentPipeline,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${diary.dedup.window:30000}") long dedupWindowMillis,
+                             @Value("${diary.dedup.cache-size:10000}") int dedupCacheSize) {
+        this.diaryEntryMapper = diaryEntryMapper;
+        this.dailySummaryMapper = dailySummaryMapper;
+        this.moodRollupService = moodRollupService;
+        this.sentimentScorer = sentimentScorer;
+        this.diaryEnrichmentPipeline = diaryEnrichmentPipeline;
+        this.transactionTemplate = transactionTemplate;
+        this.dedupWindowSeconds = Math.max(1, dedupWindowMillis / 1000);
+        this.recentWrites = new LruCache<>(dedupCacheSize, dedupWindowMillis);
+    }
 
     public List<DiaryEntry> findDiaryEntries(Long userId, LocalDate startDate, LocalDate endDate) {
         return diaryEntryMapper.findByUserIdAndDateRange(userId, startDate, endDate);
@@ -21,23 +53,101 @@ public class DiaryEntryService {
     }
 
     public DiaryEntry createDiaryEntry(DiaryEntry diaryEntry) {
-        diaryEntryMapper.insert(diaryEntry);
+        diaryEntry.setDedupHash(null);
+        return insertDiaryEntry(diaryEntry);
+    }
+
+    private DiaryEntry insertDiaryEntry(DiaryEntry diaryEntry) {
+        applyTitle(diaryEntry, diaryEntry.getTitle());
+        diaryEntry.setContentHash(ContentFingerprint.of(diaryEntry.getContent()));
+        diaryEntry.setAiSentimentScore((float) sentimentScorer.score(diaryEntry.getContent()).score());
+        if (diaryEntry.getDedupHash() == null) {
+            diaryEntryMapper.insert(diaryEntry);
+        } else {
+            // Releasing a hash older than the window and claiming it for this entry commit together, so a failed
+            // insert cannot leave the earlier entry's dedup key cleared.
+            transactionTemplate.executeWithoutResult(status -> {
+                diaryEntryMapper.releaseDedupHash(diaryEntry.getUserId(), diaryEntry.getEntryDate(),
+                        diaryEntry.getDedupHash(), dedupWindowSeconds);
+                diaryEntryMapper.insert(diaryEntry);
+            });
+        }
+        dailySummaryMapper.markStale(diaryEntry.getUserId(), diaryEntry.getEntryDate());
+        moodRollupService.refreshDaySafely(diaryEntry.getUserId(), diaryEntry.getEntryDate());
+        diaryEnrichmentPipeline.enqueue(diaryEntry.getId());
         return diaryEntry;
     }
 
+    public WriteResult createDiaryEntryIfAbsent(DiaryEntry diaryEntry) {
+        String contentHash = ContentFingerprint.of(diaryEntry.getContent());
+        String key = diaryEntry.getUserId() + ":" + diaryEntry.getEntryDate() + ":" + contentHash;
+
+        DiaryEntry recent = recentWrites.get(key);
+        if (recent != null) {
+            return new WriteResult(recent, false);
+        }
+
+        // The unique (user_id, entry_date, dedup_hash) key decides which of two concurrent writes wins, on any
+        // replica. A hash older than the window is released first, using the database clock, so the text can be
+        // written again later.
+        diaryEntry.setDedupHash(contentHash);
+        try {
+            insertDiaryEntry(diaryEntry);
+        } catch (DuplicateKeyException e) {
+            DiaryEntry existing = diaryEntryMapper.findByDedupHash(diaryEntry.getUserId(), diaryEntry.getEntryDate(), contentHash);
+            if (existing == null) {
+                throw e;
+            }
+            recentWrites.put(key, existing);
+            return new WriteResult(existing, false);
+        }
+        recentWrites.put(key, diaryEntry);
+        return new WriteResult(diaryEntry, true);
+    }
+
     public DiaryEntry updateDiaryEntry(Long id, DiaryEntry entryDetails) {
         DiaryEntry existingEntry = diaryEntryMapper.findById(id);
         if (existingEntry == null) {
             return null;
         }
-        existingEntry.setTitle(entryDetails.getTitle());
+        boolean contentChanged = !Objects.equals(existingEntry.getContent(), entryDetails.getContent());
+        if (contentChanged) {
+            existingEntry.setAiMood(null);
+            existingEntry.setAiEnrichedAt(null);
+            existingEntry.setAiSentimentScore((float) sentimentScorer.score(entryDetails.getContent()).score());
+        }
         existingEntry.setContent(entryDetails.getContent());
+        existingEntry.setContentHash(ContentFingerprint.of(entryDetails.getContent()));
+        applyTitle(existingEntry, entryDetails.getTitle());
         existingEntry.setMood(entryDetails.getMood());
         diaryEntryMapper.update(existingEntry);
+        dailySummaryMapper.markStale(existingEntry.getUserId(), existingEntry.getEntryDate());
+        moodRollupService.refreshDaySafely(existingEntry.getUserId(), existingEntry.getEntryDate());
+        if (contentChanged) {
+            diaryEnrichmentPipeline.enqueue(existingEntry.getId());
+        }
+        recentWrites.removeIf((key, entry) -> id.equals(entry.getId()));
         return existingEntry;
     }
 
     public boolean deleteDiaryEntry(Long id) {
-        return diaryEntryMapper.delete(id) > 0;
+        recentWrites.removeIf((key, entry) -> id.equals(entry.getId()));
+        DiaryEntry existingEntry = diaryEntryMapper.findById(id);
+        if (existingEntry == null || diaryEntryMapper.delete(id) == 0) {
+            return false;
+        }
+        dailySummaryMapper.markStale(existingEntry.getUserId(), existingEntry.getEntryDate());
+        moodRollupService.refreshDaySafely(existingEntry.getUserId(), existingEntry.getEntryDate());
+        return true;
+    }
+
+    private void applyTitle(DiaryEntry entry, String title) {
+        if (title == null || title.trim().isEmpty()) {
+            entry.setTitle(DiaryTitles.provisionalTitle(entry.getContent()));
+            entry.setTitleProvisional(true);
+        } else {
+            entry.setTitle(title.trim());
+            entry.setTitleProvisional(false);
+        }
     }
 }
@@ -0,0 +1,121 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.DailySummaryMapper;
+import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.model.DiaryEntry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class DiaryTitleEnricher {
+
+    private final DiaryEntryMapper diaryEntryMapper;
+    private final DailySummaryMapper dailySummaryMapper;
+    // Not LlmResponseCache: every batch holds different entries, so a cached answer could never be reused.
+    private final ChatClient chatClient;
+    private final BackgroundLlmExecutor llmExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${diary.title.batch-size:20}")
+    private int batchSize;
+
+    @Value("${diary.title.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${diary.title.retry-delay-seconds:600}")
+    private int retryDelaySeconds;
+
+    public DiaryTitleEnricher(DiaryEntryMapper diaryEntryMapper,
+                              DailySummaryMapper dailySummaryMapper,
+                              ChatModel chatModel,
+                              BackgroundLlmExecutor llmExecutor) {
+        this.diaryEntryMapper = diaryEntryMapper;
+        this.dailySummaryMapper = dailySummaryMapper;
+        this.chatClient = ChatClient.builder(chatModel).build();
+        this.llmExecutor = llmExecutor;
+    }
+
+    // The model call runs on the background LLM pool so neither the shared scheduler thread nor chat requests wait on it.
+    @Scheduled(fixedDelayString = "${diary.title.enrich-interval:30000}")
+    public void scheduleEnrichment() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            llmExecutor.submit(() -> {
+                enrichPendingTitles();
+                return null;
+            }, () -> running.set(false));
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            log.debug("Background LLM executor is saturated, deferring diary titles");
+        }
+    }
+
+    void enrichPendingTitles() {
+        // Claiming under a per-run token keeps replicas from titling the same entries, and the retry delay
+        // moves entries the model could not title behind newer ones instead of re-sending them every run.
+        String claim = UUID.randomUUID().toString();
+        if (diaryEntryMapper.claimProvisionalTitles(claim, batchSize, maxAttempts, retryDelaySeconds) == 0) {
+            return;
+        }
+        List<DiaryEntry> pending = diaryEntryMapper.findClaimedTitles(claim);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        log.info("Generating titles for {} diary entries", pending.size());
+
+        String entriesData = pending.stream()
+                .map(e -> String.format("[%d] %s", e.getId(),
+                        e.getContent().substring(0, Math.min(e.getContent().length(), 300)).replace("\n", " ")))
+                .collect(Collectors.joining("\n"));
+
+        String systemPrompt = """
+            You write short diary titles. For each diary entry, write a concise title of at most 10 characters
+            in the same language as the entry, without quotes or special symbols.
+            Respond with ONLY a JSON object mapping each entry id to its title, e.g. {"12":"周末爬山","15":"Team lunch"}.
+            """;
+
+        try {
+            String response = chatClient.prompt()
+                    .system(systemPrompt)
+                    .user("Diary entries:\n" + entriesData)
+                    .call()
+                    .content();
+
+            JsonNode titles = objectMapper.readTree(LlmResponseCache.stripCodeFence(response));
+            int updated = 0;
+            for (DiaryEntry entry : pending) {
+                JsonNode title = titles.get(String.valueOf(entry.getId()));
+                String cleaned = title != null ? cleanTitle(title.asText()) : "";
+                if (!cleaned.isEmpty() && diaryEntryMapper.updateProvisionalTitle(entry.getId(), cleaned) > 0) {
+                    dailySummaryMapper.markStale(entry.getUserId(), entry.getEntryDate());
+                    updated++;
+                }
+            }
+            log.info("Updated {} of {} provisional diary titles", updated, pending.size());
+        } catch (Exception e) {
+            log.error("Failed to generate diary titles: {}", e.getMessage(), e);
+        }
+    }
+
+    private String cleanTitle(String title) {
+        String cleaned = title.replaceAll("[\"'“”‘’\\*\\[\\]（()）《》]", "").trim();
+        return cleaned.length() > 20 ? cleaned.substring(0, 20) : cleaned;
+    }
+}
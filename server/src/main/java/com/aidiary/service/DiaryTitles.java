@@ -0,0 +1,29 @@
+package com.aidiary.service;
+
+public final class DiaryTitles {
+
+    private static final int MAX_TITLE_LENGTH = 12;
+
+    private DiaryTitles() {
+    }
+
+    public static String provisionalTitle(String content) {
+        if (content == null || content.isBlank()) {
+            return "今日记录";
+        }
+        String text = content.strip();
+        String clause = text.split("[。！？!?.,，；;：:\\n]", 2)[0].strip();
+        if (clause.isEmpty()) {
+            clause = text;
+        }
+        if (clause.codePointCount(0, clause.length()) <= MAX_TITLE_LENGTH) {
+            return clause;
+        }
+        int end = clause.offsetByCodePoints(0, MAX_TITLE_LENGTH);
+        int lastSpace = clause.lastIndexOf(' ', end);
+        if (lastSpace > MAX_TITLE_LENGTH / 2) {
+            end = lastSpace;
+        }
+        return clause.substring(0, end).strip() + "...";
+    }
+}
@@ -0,0 +1,91 @@
+package com.aidiary.service;
+
+import com.aidiary.cache.LruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private final ConcurrentMap<String, PendingRequest> inFlight = new ConcurrentHashMap<>();
+    private final LruCache<String, CompletedRequest> completed;
+
+    private record PendingRequest(String fingerprint, CompletableFuture<String> future) {
+    }
+
+    private record CompletedRequest(String fingerprint, String response) {
+    }
+
+    public IdempotencyService(@Value("${ai.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${ai.idempotency.ttl:86400000}") long ttlMillis) {
+        this.completed = new LruCache<>(cacheSize, ttlMillis);
+    }
+
+    public CompletableFuture<String> execute(Long userId, String idempotencyKey, String payload,
+                                             Function<Runnable, CompletableFuture<String>> work) {
+        String key = userId + ":" + idempotencyKey;
+        String fingerprint = ContentFingerprint.of(payload);
+
+        CompletedRequest done = completed.get(key);
+        if (done != null) {
+            checkFingerprint(done.fingerprint(), fingerprint, idempotencyKey);
+            log.info("Replaying completed response for idempotency key {}", idempotencyKey);
+            return CompletableFuture.completedFuture(done.response());
+        }
+
+        PendingRequest created = null;
+        PendingRequest pending = inFlight.get(key);
+        if (pending == null) {
+            created = new PendingRequest(fingerprint, new CompletableFuture<>());
+            pending = inFlight.putIfAbsent(key, created);
+        }
+
+        if (pending != null) {
+            checkFingerprint(pending.fingerprint(), fingerprint, idempotencyKey);
+            log.info("Attaching to in-flight request for idempotency key {}", idempotencyKey);
+            return pending.future();
+        }
+
+        PendingRequest owner = created;
+        // The in-flight entry is released by the work itself once it has really stopped, not when its future
+        // completes: a timed-out call may still be running, and a retry must not start a second pipeline.
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        try {
+            work.apply(() -> stopped.complete(null))
+                    .whenComplete((response, error) -> {
+                        if (error == null) {
+                            completed.put(key, new CompletedRequest(fingerprint, response));
+                            owner.future().complete(response);
+                        } else {
+                            owner.future().completeExceptionally(error);
+                        }
+                    })
+                    .handle((response, error) -> null)
+                    .thenCombine(stopped, (recorded, finished) -> inFlight.remove(key, owner));
+        } catch (RuntimeException e) {
+            inFlight.remove(key, owner);
+            owner.future().completeExceptionally(e);
+            throw e;
+        }
+        return owner.future();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.idempotency.purge-interval:600000}")
+    public void purgeExpired() {
+        completed.purgeExpired();
+    }
+
+    private void checkFingerprint(String expected, String actual, String idempotencyKey) {
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("Idempotency key " + idempotencyKey + " was already used with a different request");
+        }
+    }
+}
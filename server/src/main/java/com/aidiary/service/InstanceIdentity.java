@@ -0,0 +1,28 @@
+package com.aidiary.service;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+
+@Component
+public class InstanceIdentity {
+
+    @Getter
+    private final String id;
+
+    public InstanceIdentity(@Value("${reminders.claim.instance-id:}") String configuredId) {
+        // Defaults to the host name so a restarted replica picks its own unexpired claims back up;
+        // set reminders.claim.instance-id when several replicas share a host.
+        this.id = configuredId == null || configuredId.isBlank() ? resolveHostName() : configuredId;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "aidiary";
+        }
+    }
+}
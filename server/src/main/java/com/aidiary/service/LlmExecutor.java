@@ -0,0 +1,138 @@
+package com.aidiary.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class LlmExecutor {
+
+    private static final ThreadLocal<Boolean> RUNNING_TASK = new ThreadLocal<>();
+
+    @Value("${ai.llm.executor.concurrency:8}")
+    private int concurrency;
+
+    @Value("${ai.llm.executor.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${ai.llm.executor.timeout:90000}")
+    private long timeoutMillis;
+
+    @Getter
+    @Value("${ai.llm.executor.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+
+    private String threadNamePrefix = "llm-";
+
+    private ThreadPoolExecutor threadPool;
+    private ExecutorService executor;
+    // Shared by pooled tasks and streaming calls, so both count against the same concurrency cap.
+    private Semaphore permits;
+
+    @PostConstruct
+    protected void init() {
+        threadPool = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(threadNamePrefix),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor = new DelegatingSecurityContextExecutorService(threadPool);
+        permits = new Semaphore(concurrency);
+        log.info("LLM executor {} started: concurrency={}, queueCapacity={}, timeout={}ms",
+                threadNamePrefix, concurrency, queueCapacity, timeoutMillis);
+    }
+
+    // A separate pool with its own permits, for callers that must not compete with the shared one.
+    static LlmExecutor create(String threadNamePrefix, int concurrency, int queueCapacity, long timeoutMillis) {
+        LlmExecutor executor = new LlmExecutor();
+        executor.threadNamePrefix = threadNamePrefix;
+        executor.concurrency = concurrency;
+        executor.queueCapacity = queueCapacity;
+        executor.timeoutMillis = timeoutMillis;
+        executor.init();
+        return executor;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return submit(task, () -> {
+        });
+    }
+
+    // onFinished runs once the task can no longer touch any state: when it returns, or when it times out
+    // before a pool thread picked it up. A timed-out result can complete well before a running task does.
+    public <T> CompletableFuture<T> submit(Supplier<T> task, Runnable onFinished) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean started = new AtomicBoolean();
+        Future<?> running = executor.submit(() -> {
+            if (result.isDone() || !started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+                onFinished.run();
+                return;
+            }
+            RUNNING_TASK.set(Boolean.TRUE);
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                RUNNING_TASK.remove();
+                permits.release();
+                onFinished.run();
+            }
+        });
+        // A timed-out or cancelled call is interrupted rather than left running on a pool thread.
+        result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error != null) {
+                        running.cancel(true);
+                        if (started.compareAndSet(false, true)) {
+                            // never picked up: free its queue slot now instead of when a worker reaches it
+                            if (running instanceof Runnable queued) {
+                                threadPool.remove(queued);
+                            }
+                            onFinished.run();
+                        }
+                    }
+                });
+        return result;
+    }
+
+    // A task that submits more work and waits for it can deadlock the pool once every thread does the same;
+    // such callers check this and run the nested work inline instead.
+    public boolean isLlmThread() {
+        return RUNNING_TASK.get() != null;
+    }
+
+    public boolean tryAcquirePermit() {
+        return permits.tryAcquire();
+    }
+
+    public void releasePermit() {
+        permits.release();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+}
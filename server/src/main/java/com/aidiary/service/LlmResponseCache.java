@@ -0,0 +1,146 @@
+package com.aidiary.service;
+
+import com.aidiary.cache.LruCache;
+import com.aidiary.mapper.LlmResponseCacheMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+@Service
+@Slf4j
+public class LlmResponseCache {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ChatClient chatClient;
+    private final LlmResponseCacheMapper llmResponseCacheMapper;
+    private final LruCache<String, String> responses;
+    private final boolean persistent;
+    private final String modelOptions;
+
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong modelCalls = new AtomicLong();
+
+    public LlmResponseCache(ChatModel chatModel,
+                            LlmResponseCacheMapper llmResponseCacheMapper,
+                            @Value("${ai.response-cache.size:5000}") int cacheSize,
+                            @Value("${ai.response-cache.persistent:false}") boolean persistent) {
+        this.chatClient = ChatClient.builder(chatModel).build();
+        this.llmResponseCacheMapper = llmResponseCacheMapper;
+        this.responses = new LruCache<>(cacheSize);
+        this.persistent = persistent;
+        this.modelOptions = describeOptions(chatModel.getDefaultOptions());
+    }
+
+    public String call(String templateId, String systemPrompt, String userPrompt) {
+        return call(templateId, systemPrompt, userPrompt, response -> true);
+    }
+
+    // Only responses accepted by cacheable are stored, so a malformed answer is retried on the next call
+    // instead of being replayed until it is evicted.
+    public String call(String templateId, String systemPrompt, String userPrompt, Predicate<String> cacheable) {
+        // Exact hash of the prompt: ContentFingerprint folds case and whitespace, which changes what the model sees.
+        String cacheKey = sha256(templateId + "\u0000" + modelOptions + "\u0000" + systemPrompt + "\u0000" + userPrompt);
+
+        String cached = responses.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (persistent) {
+            try {
+                String stored = llmResponseCacheMapper.findResponse(cacheKey);
+                if (stored != null) {
+                    persistentHits.incrementAndGet();
+                    responses.put(cacheKey, stored);
+                    return stored;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to read LLM response cache: {}", e.getMessage());
+            }
+        }
+
+        modelCalls.incrementAndGet();
+        String response = chatClient.prompt()
+                .system(systemPrompt)
+                .user(userPrompt)
+                .call()
+                .content();
+
+        if (response != null && !response.trim().isEmpty() && cacheable.test(response)) {
+            responses.put(cacheKey, response);
+            if (persistent) {
+                try {
+                    llmResponseCacheMapper.upsert(cacheKey, templateId, response);
+                } catch (Exception e) {
+                    log.warn("Failed to persist LLM response cache entry: {}", e.getMessage());
+                }
+            }
+        }
+        return response;
+    }
+
+    public static String stripCodeFence(String response) {
+        if (response == null) {
+            return "{}";
+        }
+        String trimmed = response.trim();
+        if (trimmed.startsWith("```")) {
+            trimmed = trimmed.replaceFirst("^```(?:json)?", "").replaceFirst("```$", "").trim();
+        }
+        return trimmed;
+    }
+
+    public static boolean isJsonObject(String response) {
+        try {
+            return OBJECT_MAPPER.readTree(stripCodeFence(response)).isObject();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public double getHitRate() {
+        long hits = responses.getHits();
+        long lookups = hits + responses.getMisses();
+        return lookups == 0 ? 0 : (double) (hits + persistentHits.get()) / lookups;
+    }
+
+    @Scheduled(fixedDelayString = "${ai.response-cache.report-interval:600000}")
+    public void reportStats() {
+        long lookups = responses.getHits() + responses.getMisses();
+        if (lookups == 0) {
+            return;
+        }
+        log.info("LLM response cache: lookups={}, memoryHits={}, persistentHits={}, modelCalls={}, evictions={}, size={}, hitRate={}",
+                lookups, responses.getHits(), persistentHits.get(), modelCalls.get(), responses.getEvictions(),
+                responses.size(), String.format("%.2f", getHitRate()));
+    }
+
+    static String sha256(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String describeOptions(ChatOptions options) {
+        if (options == null) {
+            return "default";
+        }
+        return options.getModel() + "|" + options.getTemperature() + "|" + options.getTopP() + "|" + options.getMaxTokens();
+    }
+}
@@ -0,0 +1,118 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.mapper.MoodDailyMapper;
+import com.aidiary.model.DiaryEntry;
+import com.aidiary.model.MoodDaily;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MoodRollupService {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final DiaryEntryMapper diaryEntryMapper;
+    private final MoodDailyMapper moodDailyMapper;
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean backfillDone;
+
+    public void refreshDay(Long userId, LocalDate date) {
+        List<DiaryEntry> entries = diaryEntryMapper.findMoodsByUserIdAndDate(userId, date);
+        if (entries.isEmpty()) {
+            moodDailyMapper.delete(userId, date);
+            return;
+        }
+
+        Map<String, Long> moodCounts = countMoods(entries, DiaryEntry::getMood);
+        String dominantMood = dominantMood(moodCounts);
+        if (dominantMood == null && entries.stream().allMatch(e -> e.getAiMood() != null && !e.getAiMood().trim().isEmpty())) {
+            dominantMood = dominantMood(countMoods(entries, DiaryEntry::getAiMood));
+        }
+
+        MoodDaily moodDaily = new MoodDaily();
+        moodDaily.setUserId(userId);
+        moodDaily.setMoodDate(date);
+        moodDaily.setEntryCount(entries.size());
+        moodDaily.setDominantMood(dominantMood);
+        OptionalDouble avgSentiment = entries.stream()
+                .map(DiaryEntry::getAiSentimentScore)
+                .filter(Objects::nonNull)
+                .mapToDouble(Float::doubleValue)
+                .average();
+        moodDaily.setAvgSentiment(avgSentiment.isPresent() ? avgSentiment.getAsDouble() : null);
+        try {
+            moodDaily.setMoodCounts(objectMapper.writeValueAsString(moodCounts));
+        } catch (Exception e) {
+            log.warn("Failed to serialize mood counts: {}", e.getMessage());
+        }
+        moodDailyMapper.upsert(moodDaily);
+    }
+
+    public void refreshDaySafely(Long userId, LocalDate date) {
+        try {
+            refreshDay(userId, date);
+        } catch (Exception e) {
+            log.error("Failed to refresh mood rollup for user {} on {}: {}", userId, date, e.getMessage(), e);
+        }
+    }
+
+    // One bounded batch per tick instead of the whole backlog at startup, so a large existing table never
+    // holds up application start. Once a short batch comes back clean the backlog is gone and the join stops;
+    // new entries keep their rollup current through refreshDay.
+    @Scheduled(initialDelayString = "${report.mood.backfill-initial-delay:30000}",
+            fixedDelayString = "${report.mood.backfill-interval:60000}")
+    public void backfillMissingDays() {
+        if (backfillDone) {
+            return;
+        }
+        int total = 0;
+        int failures = 0;
+        List<MoodDaily> missing = moodDailyMapper.findMissingDays(BACKFILL_BATCH_SIZE);
+        for (MoodDaily day : missing) {
+            try {
+                refreshDay(day.getUserId(), day.getMoodDate());
+                total++;
+            } catch (Exception e) {
+                failures++;
+                log.error("Failed to backfill mood rollup for user {} on {}: {}", day.getUserId(), day.getMoodDate(), e.getMessage(), e);
+            }
+        }
+        if (missing.size() < BACKFILL_BATCH_SIZE && failures == 0) {
+            backfillDone = true;
+        }
+
+        if (total > 0) {
+            log.info("Backfilled mood rollup for {} days", total);
+        }
+    }
+
+    private Map<String, Long> countMoods(List<DiaryEntry> entries, Function<DiaryEntry, String> moodOf) {
+        return entries.stream()
+                .map(moodOf)
+                .filter(mood -> mood != null && !mood.trim().isEmpty())
+                .collect(Collectors.groupingBy(mood -> mood.trim().toLowerCase(), TreeMap::new, Collectors.counting()));
+    }
+
+    private String dominantMood(Map<String, Long> moodCounts) {
+        return moodCounts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+}
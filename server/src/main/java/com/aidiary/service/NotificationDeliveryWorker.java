@@ -0,0 +1,195 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.NotificationOutboxMapper;
+import com.aidiary.model.NotificationOutbox;
+import com.aidiary.notification.NotificationChannel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class NotificationDeliveryWorker {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationOutboxMapper outboxMapper;
+    private final Map<String, NotificationChannel> channels;
+    private final String instanceId;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${notifications.delivery.concurrency:16}")
+    private int concurrency;
+
+    @Value("${notifications.delivery.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notifications.delivery.lease-seconds:120}")
+    private int leaseSeconds;
+
+    @Value("${notifications.delivery.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${notifications.delivery.initial-backoff:30000}")
+    private long initialBackoffMillis;
+
+    @Value("${notifications.delivery.max-backoff:3600000}")
+    private long maxBackoffMillis;
+
+    private ExecutorService deliveryExecutor;
+
+    public NotificationDeliveryWorker(NotificationOutboxMapper outboxMapper, List<NotificationChannel> channels,
+                                      InstanceIdentity instanceIdentity) {
+        this.outboxMapper = outboxMapper;
+        this.channels = channels.stream()
+                .collect(Collectors.toMap(NotificationChannel::getName, Function.identity()));
+        this.instanceId = instanceIdentity.getId();
+    }
+
+    @PostConstruct
+    protected void init() {
+        // AbortPolicy: a full pool rejects the row back to the outbox instead of running the send on the
+        // scheduler thread, which the reminder, enrichment and rollup jobs share.
+        deliveryExecutor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchSize), new CustomizableThreadFactory("notification-send-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.delivery.poll-interval:5000}")
+    public void deliverDue() {
+        dispatchDue();
+    }
+
+    // Hands claimed rows to the delivery pool and returns without waiting for any send; the future
+    // completes once every handed-off row has settled.
+    CompletableFuture<Void> dispatchDue() {
+        int room = Math.min(batchSize, concurrency + batchSize - inFlight.size());
+        if (room <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<NotificationOutbox> claimed;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (outboxMapper.claimDue(instanceId, now, leaseSeconds, room) == 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            claimed = outboxMapper.findClaimedBy(instanceId, now);
+        } catch (Exception e) {
+            log.error("Failed to claim due notifications: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Each row renews its own lease when its send starts and is settled right after it, so a batch
+        // that queues behind slow channels never outlives the lease of rows still waiting or already sent.
+        // Rows still in flight from an earlier poll keep their renewed claim and are not handed off twice.
+        AtomicInteger delivered = new AtomicInteger();
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        for (NotificationOutbox notification : claimed) {
+            if (!inFlight.add(notification.getId())) {
+                continue;
+            }
+            try {
+                deliveries.add(CompletableFuture.runAsync(() -> {
+                    if (tryDeliver(notification)) {
+                        delivered.incrementAndGet();
+                    }
+                }, deliveryExecutor).whenComplete((ignored, error) -> inFlight.remove(notification.getId())));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(notification.getId());
+                release(notification);
+            }
+        }
+        if (deliveries.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int handedOff = deliveries.size();
+        return CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> {
+                    log.info("Delivered {} of {} claimed notifications", delivered.get(), handedOff);
+                    return null;
+                });
+    }
+
+    private void release(NotificationOutbox notification) {
+        try {
+            outboxMapper.releaseClaim(notification.getId(), instanceId);
+        } catch (Exception e) {
+            log.warn("Failed to release claim on notification id={}: {}", notification.getId(), e.getMessage());
+        }
+    }
+
+    private boolean tryDeliver(NotificationOutbox notification) {
+        try {
+            if (outboxMapper.renewClaim(notification.getId(), instanceId, LocalDateTime.now(), leaseSeconds) == 0) {
+                log.debug("Notification id={} was reclaimed by another instance", notification.getId());
+                return false;
+            }
+        } catch (Exception e) {
+            log.error("Failed to renew claim on notification id={}: {}", notification.getId(), e.getMessage(), e);
+            return false;
+        }
+        NotificationChannel channel = channels.get(notification.getChannel());
+        if (channel == null) {
+            fail(notification, "Unknown notification channel: " + notification.getChannel(), true);
+            return false;
+        }
+        try {
+            channel.send(notification);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Delivery of notification id={} via {} failed: {}", notification.getId(), channel.getName(), e.getMessage());
+            fail(notification, e.getMessage(), false);
+            return false;
+        }
+        try {
+            outboxMapper.markDelivered(List.of(notification.getId()), instanceId);
+        } catch (Exception e) {
+            log.error("Failed to mark notification id={} as delivered: {}", notification.getId(), e.getMessage(), e);
+        }
+        return true;
+    }
+
+    private void fail(NotificationOutbox notification, String error, boolean permanent) {
+        int attempts = notification.getAttempts() == null ? 1 : notification.getAttempts() + 1;
+        boolean dead = permanent || attempts >= maxAttempts;
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 20));
+        String lastError = error == null ? "unknown error" : error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH));
+        try {
+            outboxMapper.markFailed(notification.getId(), instanceId,
+                    dead ? NotificationOutbox.STATUS_DEAD : NotificationOutbox.STATUS_PENDING,
+                    LocalDateTime.now().plus(Duration.ofMillis(backoff)), lastError);
+            if (dead) {
+                log.error("Notification id={} moved to dead letter after {} attempts: {}", notification.getId(), attempts, lastError);
+            }
+        } catch (Exception e) {
+            log.error("Failed to record delivery failure for notification id={}: {}", notification.getId(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.NotificationOutboxMapper;
+import com.aidiary.mapper.ReminderMapper;
+import com.aidiary.model.NotificationOutbox;
+import com.aidiary.model.Reminder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class ReminderDispatcher {
+    private final ReminderMapper reminderMapper;
+    private final NotificationOutboxMapper outboxMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String instanceId;
+
+    @Value("${reminders.dispatch.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${reminders.claim.lease-seconds:120}")
+    private int leaseSeconds;
+
+    @Value("${reminders.claim.batch-size:1000}")
+    private int claimBatchSize;
+
+    @Value("${notifications.channels:in_app}")
+    private List<String> channels;
+
+    public ReminderDispatcher(ReminderMapper reminderMapper, NotificationOutboxMapper outboxMapper,
+                              TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                              InstanceIdentity instanceIdentity) {
+        this.reminderMapper = reminderMapper;
+        this.outboxMapper = outboxMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.instanceId = instanceIdentity.getId();
+        log.info("Reminder dispatcher claiming as {}", instanceId);
+    }
+
+    public List<Reminder> claimUpcoming(LocalDateTime until) {
+        LocalDateTime now = LocalDateTime.now();
+        // One batch per pass: the rest of the window stays unclaimed for other replicas and the next tick.
+        int claimed = reminderMapper.claimUpcoming(instanceId, until, now, leaseSeconds, claimBatchSize);
+        if (claimed > 0) {
+            log.info("Claimed {} upcoming reminders", claimed);
+        }
+        return reminderMapper.findClaimedBy(instanceId, now);
+    }
+
+    @PreDestroy
+    public void releaseClaims() {
+        try {
+            int released = reminderMapper.releaseClaims(instanceId);
+            if (released > 0) {
+                log.info("Released {} unsent reminder claims held by {}", released, instanceId);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to release reminder claims held by {}: {}", instanceId, e.getMessage());
+        }
+    }
+
+    public boolean claim(Reminder reminder) {
+        return reminderMapper.claimReminders(List.of(reminder.getId()), instanceId, LocalDateTime.now(), leaseSeconds) > 0;
+    }
+
+    public void dispatch(List<Reminder> dueReminders) {
+        log.info("Dispatching {} due reminders.", dueReminders.size());
+
+        for (int from = 0; from < dueReminders.size(); from += chunkSize) {
+            List<Reminder> chunk = dueReminders.subList(from, Math.min(from + chunkSize, dueReminders.size()));
+            try {
+                dispatchChunk(chunk);
+            } catch (Exception e) {
+                log.error("Failed to dispatch chunk of {} reminders: {}", chunk.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void dispatchChunk(List<Reminder> chunk) {
+        List<Long> ids = chunk.stream().map(Reminder::getId).toList();
+        Integer queued = transactionTemplate.execute(status -> {
+            // The claim UPDATE row-locks the chunk until commit, so the outbox insert and markAsSent
+            // below cannot interleave with another replica's claim.
+            reminderMapper.claimReminders(ids, instanceId, LocalDateTime.now(), leaseSeconds);
+            List<Reminder> owned = reminderMapper.findOwned(ids, instanceId);
+            if (owned.isEmpty()) {
+                return 0;
+            }
+            List<NotificationOutbox> notifications = new ArrayList<>();
+            for (Reminder reminder : owned) {
+                String payload = toPayload(reminder);
+                for (String channel : channels) {
+                    NotificationOutbox notification = new NotificationOutbox();
+                    notification.setReminderId(reminder.getId());
+                    notification.setUserId(reminder.getUserId());
+                    notification.setChannel(channel.trim());
+                    notification.setPayload(payload);
+                    notifications.add(notification);
+                }
+            }
+            if (!notifications.isEmpty()) {
+                outboxMapper.insertAll(notifications);
+            }
+            reminderMapper.markAsSent(owned.stream().map(Reminder::getId).toList(), instanceId);
+            return owned.size();
+        });
+        if (queued == null || queued == 0) {
+            log.debug("None of {} due reminders are still owned by {}", chunk.size(), instanceId);
+            return;
+        }
+        log.info("Queued notifications for {} of {} reminders in chunk", queued, chunk.size());
+    }
+
+    private String toPayload(Reminder reminder) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("reminderId", reminder.getId());
+        payload.put("userId", reminder.getUserId());
+        payload.put("taskId", reminder.getTaskId());
+        payload.put("reminderTime", String.valueOf(reminder.getReminderTime()));
+        payload.put("message", reminder.getTaskId() != null
+                ? "Reminder for task " + reminder.getTaskId() + "!"
+                : "You have a reminder.");
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize reminder payload", e);
+        }
+    }
+}
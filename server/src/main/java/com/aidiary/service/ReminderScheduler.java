@@ -0,0 +1,132 @@
+package com.aidiary.service;
+
+import com.aidiary.model.Reminder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class ReminderScheduler {
+
+    private final ReminderDispatcher reminderDispatcher;
+    private final DelayQueue<ScheduledReminder> queue = new DelayQueue<>();
+    private final ConcurrentMap<Long, ScheduledReminder> scheduled = new ConcurrentHashMap<>();
+
+    @Value("${reminders.scheduler.horizon:600000}")
+    private long horizonMillis;
+
+    private Thread firingThread;
+
+    private static final class ScheduledReminder implements Delayed {
+        private final Reminder reminder;
+        private final long fireAtNanos;
+
+        private ScheduledReminder(Reminder reminder, long fireAtNanos) {
+            this.reminder = reminder;
+            this.fireAtNanos = fireAtNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAtNanos, ((ScheduledReminder) other).fireAtNanos);
+        }
+    }
+
+    public ReminderScheduler(ReminderDispatcher reminderDispatcher) {
+        this.reminderDispatcher = reminderDispatcher;
+    }
+
+    @PostConstruct
+    protected void start() {
+        firingThread = new Thread(this::fireLoop, "reminder-scheduler");
+        firingThread.setDaemon(true);
+        firingThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        firingThread.interrupt();
+    }
+
+    public void schedule(Reminder reminder) {
+        if (reminder.getId() == null || reminder.getReminderTime() == null) {
+            return;
+        }
+        if (withinHorizon(reminder) && reminderDispatcher.claim(reminder)) {
+            enqueue(reminder);
+        }
+    }
+
+    private boolean withinHorizon(Reminder reminder) {
+        return reminder.getReminderTime().isBefore(LocalDateTime.now().plusNanos(horizonMillis * 1_000_000));
+    }
+
+    private void enqueue(Reminder reminder) {
+        long delayMillis = reminder.getReminderTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                - System.currentTimeMillis();
+        ScheduledReminder entry = new ScheduledReminder(reminder, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        if (scheduled.putIfAbsent(reminder.getId(), entry) == null) {
+            queue.put(entry);
+        }
+    }
+
+    public void cancel(Long reminderId) {
+        ScheduledReminder entry = scheduled.remove(reminderId);
+        if (entry != null) {
+            queue.remove(entry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reminders.scheduler.reconcile-interval:300000}", initialDelayString = "${reminders.scheduler.reconcile-interval:300000}")
+    public void reconcile() {
+        List<Reminder> upcoming = reminderDispatcher.claimUpcoming(LocalDateTime.now().plusNanos(horizonMillis * 1_000_000));
+        int before = scheduled.size();
+        upcoming.forEach(this::enqueue);
+        log.debug("Reminder reconciliation loaded {} new reminders, {} scheduled", scheduled.size() - before, scheduled.size());
+    }
+
+    private void fireLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<ScheduledReminder> due = new ArrayList<>();
+                due.add(queue.take());
+                queue.drainTo(due);
+
+                List<Reminder> reminders = due.stream()
+                        .filter(entry -> scheduled.get(entry.reminder.getId()) == entry)
+                        .map(entry -> entry.reminder)
+                        .toList();
+                if (!reminders.isEmpty()) {
+                    reminderDispatcher.dispatch(reminders);
+                }
+                due.forEach(entry -> scheduled.remove(entry.reminder.getId(), entry));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Reminder firing failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.aidiary.service;
 
+import com.aidiary.mapper.NotificationOutboxMapper;
 import com.aidiary.mapper.ReminderMapper;
+import com.aidiary.model.NotificationOutbox;
 import com.aidiary.model.Reminder;
+import com.aidiary.notification.InAppNotificationChannel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -15,6 +19,8 @@ import java.util.List;
 @Slf4j
 public class ReminderService {
     private final ReminderMapper reminderMapper;
+    private final ReminderScheduler reminderScheduler;
+    private final NotificationOutboxMapper outboxMapper;
 
     public List<Reminder> findByUserId(Long userId) {
         return reminderMapper.findByUserId(userId);
@@ -24,6 +30,10 @@ public class ReminderService {
         return reminderMapper.findById(id);
     }
 
+    public List<NotificationOutbox> findNotifications(Long userId, int limit) {
+        return outboxMapper.findByUserIdAndChannel(userId, InAppNotificationChannel.NAME, limit);
+    }
+
     @Transactional
     public Reminder createReminder(Reminder reminder) {
         reminder.setSent(false);
@@ -31,49 +41,30 @@ public class ReminderService {
         reminderMapper.insert(reminder);
         log.info("Reminder created: id={}, userId={}, taskId={}, time={}",
                 reminder.getId(), reminder.getUserId(), reminder.getTaskId(), reminder.getReminderTime());
+        afterCommit(() -> reminderScheduler.schedule(reminder));
         return reminder;
     }
 
     @Transactional
     public boolean deleteReminder(Long id) {
-        return reminderMapper.delete(id) > 0;
-    }
-
-    @Scheduled(cron = "0 * * * * *")
-    @Transactional
-    public void processDueReminders() {
-        LocalDateTime now = LocalDateTime.now();
-        log.debug("Checking for due reminders at {}", now);
-
-        List<Reminder> dueReminders = reminderMapper.findDueReminders(now);
-
-        if (dueReminders.isEmpty()) {
-            log.debug("No due reminders found.");
-            return;
-        }
-
-        log.info("Found {} due reminders to process.", dueReminders.size());
-
-        for (Reminder reminder : dueReminders) {
-            try {
-                sendNotification(reminder);
-                reminderMapper.markAsSent(reminder.getId());
-                log.info("Reminder sent and marked: id={}", reminder.getId());
-            } catch (Exception e) {
-                log.error("Failed to process reminder id={}: {}", reminder.getId(), e.getMessage(), e);
-            }
+        if (reminderMapper.delete(id) == 0) {
+            return false;
         }
+        // a rolled-back delete must leave the reminder scheduled
+        afterCommit(() -> reminderScheduler.cancel(id));
+        return true;
     }
 
-    private void sendNotification(Reminder reminder) {
-        log.warn("=== Sending Reminder Notification (Simulation) ===");
-        log.warn("To User ID: {}", reminder.getUserId());
-        log.warn("Reminder Time: {}", reminder.getReminderTime());
-        log.warn("Associated Task ID: {}", reminder.getTaskId());
-        log.warn("Reminder Content Placeholder: Reminder for task {}!", reminder.getTaskId());
-        log.warn("==================================================");
-        try {
-            Thread.sleep(100);
-        } catch (InterruptedException ignored) {}
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,20 +1,38 @@
 package com.aidiary.service;
 
+import com.aidiary.dto.ActivityDay;
 import com.aidiary.dto.DailySummaryResponse;
+import com.aidiary.mapper.DailySummaryMapper;
 import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.mapper.MoodDailyMapper;
 import com.aidiary.mapper.TaskMapper;
+import com.aidiary.model.DailySummary;
 import com.aidiary.model.DiaryEntry;
+import com.aidiary.model.MoodDaily;
 import com.aidiary.model.Task;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,28 +43,186 @@ public class ReportService {
     private final TaskMapper taskMapper;
     private final DiaryEntryMapper diaryEntryMapper;
     private final ChatModel chatModel;
+    private final LlmResponseCache llmResponseCache;
+    private final LlmExecutor llmExecutor;
+    private final DailySummaryMapper dailySummaryMapper;
+    private final MoodDailyMapper moodDailyMapper;
+    private final MoodRollupService moodRollupService;
+    private final SentimentScorer sentimentScorer;
+    private final ObjectMapper objectMapper;
+    private final Set<String> refreshingSummaries = ConcurrentHashMap.newKeySet();
+
+    private static final int MOOD_DAY_CONTENT_LIMIT = 500;
+
+    @Value("${report.mood.batch-days:31}")
+    private int moodBatchDays;
+
+    @Value("${report.mood.lexicon-confidence:0.7}")
+    private double lexiconConfidenceThreshold;
 
     public DailySummaryResponse getDailySummary(Long userId, LocalDate date) {
+        DailySummary stored = dailySummaryMapper.find(userId, date);
+        DailySummaryResponse cached = stored != null ? readSummary(stored) : null;
+        if (cached != null) {
+            if (Boolean.TRUE.equals(stored.getStale())) {
+                // Only the AI text is served stale; the lists and counts are cheap to read and must
+                // reflect a task completed or an entry written a moment ago.
+                applyCurrentInputs(cached, taskMapper.findByUserIdAndDate(userId, date),
+                        diaryEntryMapper.findByUserIdAndDateRange(userId, date, date));
+                refreshInBackground(userId, date);
+            }
+            return cached;
+        }
+        return refreshDailySummary(userId, date);
+    }
 
-        List<Task> tasks = taskMapper.findByUserIdAndDate(userId, date);
-        long completedCount = tasks.stream().filter(t -> "completed".equalsIgnoreCase(t.getStatus())).count();
-        long pendingCount = tasks.size() - completedCount;
+    private void refreshInBackground(Long userId, LocalDate date) {
+        String key = userId + ":" + date;
+        if (!refreshingSummaries.add(key)) {
+            return;
+        }
+        try {
+            llmExecutor.submit(() -> refreshDailySummary(userId, date))
+                    .whenComplete((response, error) -> {
+                        refreshingSummaries.remove(key);
+                        if (error != null) {
+                            log.error("Failed to refresh daily summary for user {} on {}: {}", userId, date, error.getMessage(), error);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            refreshingSummaries.remove(key);
+            log.warn("LLM executor is saturated, serving stale daily summary for user {} on {}", userId, date);
+        }
+    }
+
+    private DailySummaryResponse refreshDailySummary(Long userId, LocalDate date) {
+        dailySummaryMapper.insertPlaceholder(userId, date);
+        DailySummary stored = dailySummaryMapper.find(userId, date);
 
+        List<Task> tasks = taskMapper.findByUserIdAndDate(userId, date);
         List<DiaryEntry> entries = diaryEntryMapper.findByUserIdAndDateRange(userId, date, date);
 
-        String aiSuggestion = generateAiSummary(tasks, entries);
-        String moodAnalysis = generateMoodAnalysis(entries);
+        String fingerprint = inputFingerprint(tasks, entries);
+        DailySummaryResponse previous = fingerprint.equals(stored.getInputFingerprint()) ? readSummary(stored) : null;
+        DailyInsights insights = previous != null
+                ? new DailyInsights(previous.getAiSuggestion(), previous.getMoodAnalysis())
+                : generateDailyInsights(tasks, entries);
 
         DailySummaryResponse response = new DailySummaryResponse();
         response.setDate(date);
+        response.setAiSuggestion(insights.aiSuggestion());
+        response.setMoodAnalysis(insights.moodAnalysis());
+        applyCurrentInputs(response, tasks, entries);
+
+        try {
+            if (dailySummaryMapper.saveIfUnchanged(userId, date, stored.getVersion(), fingerprint,
+                    objectMapper.writeValueAsString(response)) == 0) {
+                log.debug("Daily summary for user {} on {} changed while generating, leaving it stale", userId, date);
+            }
+        } catch (Exception e) {
+            log.error("Failed to store daily summary: {}", e.getMessage(), e);
+        }
+        return response;
+    }
+
+    private static void applyCurrentInputs(DailySummaryResponse response, List<Task> tasks, List<DiaryEntry> entries) {
+        long completedCount = tasks.stream().filter(t -> "completed".equalsIgnoreCase(t.getStatus())).count();
         response.setTasksCompleted(completedCount);
-        response.setTasksPending(pendingCount);
-        response.setAiSuggestion(aiSuggestion);
-        response.setMoodAnalysis(moodAnalysis);
+        response.setTasksPending(tasks.size() - completedCount);
         response.setTasks(tasks);
         response.setEntries(entries);
+    }
 
-        return response;
+    private DailySummaryResponse readSummary(DailySummary stored) {
+        if (stored.getSummaryJson() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(stored.getSummaryJson(), DailySummaryResponse.class);
+        } catch (Exception e) {
+            log.warn("Failed to read stored daily summary: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String inputFingerprint(List<Task> tasks, List<DiaryEntry> entries) {
+        StringBuilder inputs = new StringBuilder();
+        tasks.stream()
+                .sorted(Comparator.comparing(Task::getId))
+                .forEach(t -> inputs.append("T").append(t.getId()).append('|').append(t.getTitle())
+                        .append('|').append(t.getStatus()).append('\n'));
+        entries.stream()
+                .sorted(Comparator.comparing(DiaryEntry::getId))
+                .forEach(e -> inputs.append("D").append(e.getId()).append('|').append(e.getMood())
+                        .append('|').append(e.getContent()).append('\n'));
+        return ContentFingerprint.of(inputs.toString());
+    }
+
+    record DailyInsights(String aiSuggestion, String moodAnalysis) {
+    }
+
+    private DailyInsights generateDailyInsights(List<Task> tasks, List<DiaryEntry> entries) {
+        if (entries.isEmpty()) {
+            return new DailyInsights(generateAiSummary(tasks, entries), generateMoodAnalysis(entries));
+        }
+
+        String tasksData = tasks.stream()
+                .map(t -> String.format("- Task: %s (Status: %s)", t.getTitle(), t.getStatus()))
+                .collect(Collectors.joining("\n"));
+
+        String entriesData = entries.stream()
+                .map(e -> {
+                    String mood = (e.getMood() != null && !e.getMood().trim().isEmpty())
+                            ? e.getMood() : "not specified";
+                    String content = (e.getContent() != null)
+                            ? e.getContent().substring(0, Math.min(e.getContent().length(), 200))
+                            : "";
+                    return String.format("- Mood: %s, Content: %s", mood, content);
+                })
+                .collect(Collectors.joining("\n"));
+
+        String systemPrompt = """
+            You are an empathetic and insightful assistant. Based on the user's task list and diary entries for today, produce two texts:
+            aiSuggestion: a brief (1-2 sentence) summary and suggestion focused on their mood and task completion, giving positive feedback or gentle reminders. Do not say "Hello" or "Of course".
+            moodAnalysis: a brief (2-3 sentence) mood analysis identifying the overall emotional state, patterns, and any notable mood changes throughout the day.
+            IMPORTANT: Both texts must be ONLY in English. Do not use any other language, emojis, or special characters.
+            """;
+
+        String userPrompt = String.format(
+                "Here is my summary for today:\n\n[Tasks]\n%s\n\n[Diary]\n%s",
+                tasks.isEmpty() ? "No tasks" : tasksData,
+                entriesData
+        );
+
+        try {
+            DailyInsights insights = ChatClient.builder(chatModel).build().prompt()
+                    .system(systemPrompt)
+                    .user(userPrompt)
+                    .call()
+                    .entity(DailyInsights.class);
+            if (insights != null && insights.aiSuggestion() != null && !insights.aiSuggestion().isBlank()
+                    && insights.moodAnalysis() != null && !insights.moodAnalysis().isBlank()) {
+                return new DailyInsights(insights.aiSuggestion().trim(), insights.moodAnalysis().trim());
+            }
+            log.warn("Structured daily summary was incomplete, falling back to separate calls");
+        } catch (Exception e) {
+            log.warn("Structured daily summary failed, falling back to separate calls: {}", e.getMessage());
+        }
+
+        if (llmExecutor.isLlmThread()) {
+            // already holding an LLM permit, e.g. a background refresh; waiting on the pool from here could deadlock it
+            return new DailyInsights(generateAiSummary(tasks, entries), generateMoodAnalysis(entries));
+        }
+        CompletableFuture<String> suggestion;
+        try {
+            suggestion = llmExecutor.submit(() -> generateAiSummary(tasks, entries))
+                    .exceptionally(e -> "Could not generate AI suggestion; the AI service may be temporarily unavailable.");
+        } catch (RejectedExecutionException e) {
+            log.warn("LLM executor is saturated, generating daily summary sequentially");
+            return new DailyInsights(generateAiSummary(tasks, entries), generateMoodAnalysis(entries));
+        }
+        String moodAnalysis = generateMoodAnalysis(entries);
+        return new DailyInsights(suggestion.join(), moodAnalysis);
     }
 
     public String generateMoodAnalysis(List<DiaryEntry> entries) {
@@ -96,10 +272,14 @@ public class ReportService {
             log.error("Failed to generate mood analysis: {}", e.getMessage(), e);
         }
 
+        // Unlabelled entries use the mood the enrichment pipeline already stored; the model is only
+        // consulted while some of today's entries are still waiting to be enriched.
+        boolean allEnriched = entries.stream().allMatch(e -> e.getAiEnrichedAt() != null);
         Map<String, Long> moodCounts = entries.stream()
-                .filter(e -> e.getMood() != null && !e.getMood().trim().isEmpty())
+                .map(ReportService::effectiveMood)
+                .filter(Objects::nonNull)
                 .collect(Collectors.groupingBy(
-                        e -> e.getMood().trim().toLowerCase(),
+                        mood -> mood,
                         Collectors.counting()
                 ));
 
@@ -161,10 +341,14 @@ public class ReportService {
             return "Tracked";
         }
 
+        // Unlabelled entries use the mood the enrichment pipeline already stored; the model is only
+        // consulted while some of today's entries are still waiting to be enriched.
+        boolean allEnriched = entries.stream().allMatch(e -> e.getAiEnrichedAt() != null);
         Map<String, Long> moodCounts = entries.stream()
-                .filter(e -> e.getMood() != null && !e.getMood().trim().isEmpty())
+                .map(ReportService::effectiveMood)
+                .filter(Objects::nonNull)
                 .collect(Collectors.groupingBy(
-                        e -> e.getMood().trim().toLowerCase(),
+                        mood -> mood,
                         Collectors.counting()
                 ));
 
@@ -180,12 +364,23 @@ public class ReportService {
                     .map(Map.Entry::getKey)
                     .orElse(null);
 
-            if (mostFrequentMood != null && moodCounts.get(mostFrequentMood) > entries.size() / 2) {
+            if (mostFrequentMood != null && (allEnriched || moodCounts.get(mostFrequentMood) > entries.size() / 2)) {
                 log.info("Most frequent mood (majority): {}", mostFrequentMood);
                 return capitalizeFirst(mostFrequentMood);
             }
         }
 
+        SentimentScorer.Result lexicalMood = null;
+        if (moodCounts.isEmpty()) {
+            lexicalMood = sentimentScorer.score(entries.stream()
+                    .map(e -> e.getContent() != null ? e.getContent() : "")
+                    .collect(Collectors.joining("\n")));
+            if (allEnriched || lexicalMood.confidence() >= lexiconConfidenceThreshold) {
+                log.debug("Lexicon classified today's mood as {} (confidence {})", lexicalMood.mood(), lexicalMood.confidence());
+                return capitalizeFirst(lexicalMood.mood());
+            }
+        }
+
         String entriesData = entries.stream()
                 .map(e -> String.format("Mood: %s, Content: %s",
                         e.getMood() != null && !e.getMood().trim().isEmpty() ? e.getMood() : "not specified",
@@ -209,12 +404,8 @@ public class ReportService {
         );
 
         try {
-            ChatClient localChatClient = ChatClient.builder(chatModel).build();
-            String mood = localChatClient.prompt()
-                    .system(systemPrompt)
-                    .user(userPrompt)
-                    .call()
-                    .content();
+            String mood = llmResponseCache.call("today-mood", systemPrompt, userPrompt,
+                    response -> response.trim().matches("\\p{L}+"));
 
             if (mood != null) {
                 String cleaned = mood.replaceAll("[^\\p{L}\\p{M}\\p{N}\\p{P}\\p{S}]", "").trim().toLowerCase();
@@ -232,7 +423,7 @@ public class ReportService {
                 return capitalizeFirst(fallback);
             }
 
-            return "Neutral";
+            return lexicalMood != null ? capitalizeFirst(lexicalMood.mood()) : "Neutral";
         } catch (Exception e) {
             log.error("Failed to generate today's mood summary: {}", e.getMessage(), e);
             if (!moodCounts.isEmpty()) {
@@ -242,10 +433,15 @@ public class ReportService {
                         .orElse("neutral");
                 return capitalizeFirst(fallback);
             }
-            return "Neutral";
+            return lexicalMood != null ? capitalizeFirst(lexicalMood.mood()) : "Neutral";
         }
     }
 
+    private static String effectiveMood(DiaryEntry entry) {
+        String mood = entry.getMood() != null && !entry.getMood().isBlank() ? entry.getMood() : entry.getAiMood();
+        return mood == null || mood.isBlank() ? null : mood.trim().toLowerCase();
+    }
+
     private String capitalizeFirst(String str) {
         if (str == null || str.isEmpty()) {
             return str;
@@ -254,6 +450,19 @@ public class ReportService {
     }
 
 
+    public List<ActivityDay> getActivity(Long userId, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, ActivityDay> days = new TreeMap<>();
+        for (ActivityDay diaryDay : diaryEntryMapper.countEntriesByDay(userId, startDate, endDate)) {
+            days.computeIfAbsent(diaryDay.getDate(), ActivityDay::new).setDiaryEntries(diaryDay.getDiaryEntries());
+        }
+        for (ActivityDay taskDay : taskMapper.countActivityByDay(userId, startDate, endDate)) {
+            ActivityDay day = days.computeIfAbsent(taskDay.getDate(), ActivityDay::new);
+            day.setTasksCreated(taskDay.getTasksCreated());
+            day.setTasksCompleted(taskDay.getTasksCompleted());
+        }
+        return new ArrayList<>(days.values());
+    }
+
     public String getMoodTrend(Long userId, String period) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate;
@@ -262,68 +471,55 @@ public class ReportService {
             case "last7days":
                 startDate = endDate.minusDays(6);
                 break;
+            case "last90days":
+                startDate = endDate.minusDays(89);
+                break;
+            case "lastyear":
+            case "last365days":
+                startDate = endDate.minusYears(1).plusDays(1);
+                break;
+            case "all":
+                startDate = null;
+                endDate = null;
+                break;
             case "last30days":
             default:
                 startDate = endDate.minusMonths(1).plusDays(1);
                 break;
         }
+        return getMoodTrend(userId, startDate, endDate);
+    }
 
-        List<DiaryEntry> entries = diaryEntryMapper.findByUserIdAndDateRange(userId, startDate, endDate);
+    public String getMoodTrend(Long userId, LocalDate startDate, LocalDate endDate) {
+        List<MoodDaily> days = moodDailyMapper.findByUserIdAndDateRange(userId, startDate, endDate);
 
-        if (entries.isEmpty()) {
+        if (days.isEmpty()) {
             return "[]";
         }
 
-        Map<LocalDate, List<DiaryEntry>> entriesByDate = entries.stream()
-                .collect(Collectors.groupingBy(DiaryEntry::getEntryDate));
-
-        List<Map<String, String>> moodTrendList = new ArrayList<>();
-
-        for (Map.Entry<LocalDate, List<DiaryEntry>> dateEntry : entriesByDate.entrySet()) {
-            LocalDate date = dateEntry.getKey();
-            List<DiaryEntry> dayEntries = dateEntry.getValue();
-
-            Map<String, Long> moodCounts = dayEntries.stream()
-                    .filter(e -> e.getMood() != null && !e.getMood().trim().isEmpty())
-                    .collect(Collectors.groupingBy(
-                            e -> e.getMood().trim().toLowerCase(),
-                            Collectors.counting()
-                    ));
-
-            String dominantMood;
-            if (!moodCounts.isEmpty()) {
-                dominantMood = moodCounts.entrySet().stream()
-                        .max(Map.Entry.comparingByValue())
-                        .map(Map.Entry::getKey)
-                        .orElse("neutral");
-            } else {
-                try {
-                    String dayEntriesData = dayEntries.stream()
-                            .map(e -> String.format("Content: %s", e.getContent() != null ? e.getContent() : ""))
-                            .collect(Collectors.joining("\n"));
-
-                    if (dayEntriesData != null && !dayEntriesData.trim().isEmpty()) {
-                        dominantMood = analyzeMoodWithAI(dayEntriesData);
-                    } else {
-                        log.debug("No content available for mood analysis, using neutral");
-                        dominantMood = "neutral";
-                    }
-                } catch (Exception e) {
-                    log.error("Error analyzing mood for date {}: {}", date, e.getMessage(), e);
-                    dominantMood = "neutral";
-                }
-            }
-
-            Map<String, String> moodData = new HashMap<>();
-            moodData.put("date", date.toString());
-            moodData.put("mood", dominantMood);
+        List<LocalDate> unclassifiedDates = days.stream()
+                .filter(d -> d.getDominantMood() == null)
+                .map(MoodDaily::getMoodDate)
+                .toList();
+        Map<LocalDate, String> classified = unclassifiedDates.isEmpty()
+                ? Map.of()
+                : classifyDays(userId, loadEntriesByDate(userId, unclassifiedDates));
+
+        List<Map<String, Object>> moodTrendList = new ArrayList<>();
+        for (MoodDaily day : days) {
+            String mood = day.getDominantMood() != null
+                    ? day.getDominantMood()
+                    : classified.getOrDefault(day.getMoodDate(), "neutral");
+
+            Map<String, Object> moodData = new LinkedHashMap<>();
+            moodData.put("date", day.getMoodDate().toString());
+            moodData.put("mood", mood);
+            moodData.put("entries", day.getEntryCount());
+            moodData.put("sentiment", day.getAvgSentiment());
             moodTrendList.add(moodData);
         }
 
-        moodTrendList.sort((a, b) -> a.get("date").compareTo(b.get("date")));
-
         try {
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
             String json = objectMapper.writeValueAsString(moodTrendList);
             log.info("Generated mood trend with {} days", moodTrendList.size());
             return json;
@@ -333,49 +529,90 @@ public class ReportService {
         }
     }
 
-    private String analyzeMoodWithAI(String entriesData) {
-        if (entriesData == null || entriesData.trim().isEmpty()) {
-            log.debug("Empty entries data provided for mood analysis");
-            return "neutral";
+    private Map<LocalDate, List<DiaryEntry>> loadEntriesByDate(Long userId, List<LocalDate> dates) {
+        Set<LocalDate> wanted = new HashSet<>(dates);
+        LocalDate first = Collections.min(dates);
+        LocalDate last = Collections.max(dates);
+        return diaryEntryMapper.findByUserIdAndDateRange(userId, first, last).stream()
+                .filter(e -> wanted.contains(e.getEntryDate()))
+                .collect(Collectors.groupingBy(DiaryEntry::getEntryDate, TreeMap::new, Collectors.toList()));
+    }
+
+    private Map<LocalDate, String> classifyDays(Long userId, Map<LocalDate, List<DiaryEntry>> unlabelledDays) {
+        Map<LocalDate, String> moods = new TreeMap<>();
+        Map<LocalDate, String> lexicalMoods = new HashMap<>();
+        List<LocalDate> dates = new ArrayList<>();
+
+        for (Map.Entry<LocalDate, List<DiaryEntry>> day : unlabelledDays.entrySet()) {
+            SentimentScorer.Result result = sentimentScorer.score(day.getValue().stream()
+                    .map(e -> e.getContent() != null ? e.getContent() : "")
+                    .collect(Collectors.joining("\n")));
+            lexicalMoods.put(day.getKey(), result.mood());
+            if (result.confidence() >= lexiconConfidenceThreshold) {
+                moods.put(day.getKey(), result.mood());
+                diaryEntryMapper.updateAiMood(day.getValue(), result.mood());
+                moodRollupService.refreshDaySafely(userId, day.getKey());
+            } else {
+                dates.add(day.getKey());
+            }
         }
 
+        for (int from = 0; from < dates.size(); from += moodBatchDays) {
+            List<LocalDate> batch = dates.subList(from, Math.min(from + moodBatchDays, dates.size()));
+            Map<LocalDate, String> classified = classifyDayBatch(batch, unlabelledDays);
+
+            for (LocalDate date : batch) {
+                String mood = classified.get(date);
+                if (mood == null) {
+                    moods.put(date, lexicalMoods.get(date));
+                    continue;
+                }
+                moods.put(date, mood);
+                // only entries whose content is still what the model read; an edit meanwhile cleared ai_mood
+                diaryEntryMapper.updateAiMood(unlabelledDays.get(date), mood);
+                moodRollupService.refreshDaySafely(userId, date);
+            }
+        }
+        return moods;
+    }
+
+    private Map<LocalDate, String> classifyDayBatch(List<LocalDate> dates, Map<LocalDate, List<DiaryEntry>> entriesByDate) {
+        String daysData = dates.stream()
+                .map(date -> {
+                    String content = entriesByDate.get(date).stream()
+                            .map(e -> e.getContent() != null ? e.getContent() : "")
+                            .collect(Collectors.joining(" / "))
+                            .replace("\n", " ");
+                    return String.format("[%s] %s", date, content.substring(0, Math.min(content.length(), MOOD_DAY_CONTENT_LIMIT)));
+                })
+                .collect(Collectors.joining("\n"));
+
         String systemPrompt = """
-            Analyze the diary content and determine the mood.
-            Respond with ONLY a single English word (all lowercase) representing the mood.
+            Analyze the diary content of each day and determine that day's mood.
+            Describe each mood with a single English word (all lowercase).
             Use common English mood words such as: happy, sad, neutral, anxious, grateful, stressed, calm, excited, tired, peaceful, content, frustrated, joyful, worried, relaxed, overwhelmed.
+            Respond with ONLY a JSON object mapping each date to its mood, e.g. {"2025-01-01":"happy","2025-01-02":"tired"}.
             Do NOT use emojis, Chinese characters, or any other text.
             """;
 
-        String userPrompt = "Diary entries:\n" + entriesData + "\n\nWhat is the mood? (single word only)";
-
+        Map<LocalDate, String> moods = new HashMap<>();
         try {
-            ChatClient localChatClient = ChatClient.builder(chatModel).build();
-            var response = localChatClient.prompt()
-                    .system(systemPrompt)
-                    .user(userPrompt)
-                    .call();
-
-            if (response == null) {
-                log.warn("AI response is null for mood analysis");
-                return "neutral";
-            }
-
-            String mood = response.content();
-            if (mood != null && !mood.trim().isEmpty()) {
-                String cleaned = mood.replaceAll("[^\\p{L}\\p{M}\\p{N}\\p{P}\\p{S}]", "").trim().toLowerCase();
-                if (!cleaned.isEmpty()) {
-                    log.debug("AI analyzed mood as: {}", cleaned);
-                    return cleaned;
-                } else {
-                    log.warn("AI mood response cleaned to empty string, original: {}", mood);
+            String response = llmResponseCache.call("mood-trend-batch", systemPrompt, "Diary entries by day:\n" + daysData,
+                    LlmResponseCache::isJsonObject);
+            JsonNode result = objectMapper.readTree(LlmResponseCache.stripCodeFence(response));
+            for (LocalDate date : dates) {
+                JsonNode mood = result.get(date.toString());
+                if (mood != null) {
+                    String cleaned = mood.asText().replaceAll("[^\\p{L}]", "").toLowerCase();
+                    if (!cleaned.isEmpty()) {
+                        moods.put(date, cleaned);
+                    }
                 }
-            } else {
-                log.warn("AI mood response is null or empty");
             }
+            log.debug("AI classified mood for {} of {} days", moods.size(), dates.size());
         } catch (Exception e) {
-            log.error("Failed to analyze mood with AI: {}", e.getMessage(), e);
+            log.error("Failed to classify moods for {} days: {}", dates.size(), e.getMessage(), e);
         }
-
-        return "neutral";
+        return moods;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package com.aidiary.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class SentimentScorer {
+
+    private static final double NORMALIZATION_ALPHA = 15.0;
+    private static final double INTENSIFIER_BOOST = 1.5;
+    private static final double NEGATION_FACTOR = -0.75;
+    private static final int NEGATION_SCOPE = 3;
+    private static final int CONFIDENT_HITS = 3;
+
+    private record Term(double weight, String mood) {
+    }
+
+    public record Result(double score, String mood, double confidence) {
+    }
+
+    private static final Map<String, Term> ENGLISH = new HashMap<>();
+    private static final Map<String, Term> CHINESE = new HashMap<>();
+    private static final Set<String> ENGLISH_NEGATORS = Set.of("not", "no", "never", "dont", "don't", "didnt", "didn't",
+            "isnt", "isn't", "wasnt", "wasn't", "cant", "can't", "couldnt", "couldn't", "without", "hardly");
+    private static final Set<String> ENGLISH_INTENSIFIERS = Set.of("very", "so", "really", "extremely", "super", "too", "totally", "incredibly");
+    private static final Set<String> CHINESE_NEGATORS = Set.of("不", "没", "没有", "别", "未", "不太", "并不");
+    private static final Set<String> CHINESE_INTENSIFIERS = Set.of("很", "非常", "特别", "太", "超", "超级", "十分", "极其", "好");
+    private static final int MAX_CHINESE_TERM_LENGTH = 4;
+    private static final Set<Character> CHINESE_TERM_STARTS = new HashSet<>();
+
+    static {
+        english(3, "happy", "happy", "glad", "cheerful", "delighted", "wonderful", "great", "awesome", "fantastic", "fun", "enjoyed", "enjoy", "love", "loved");
+        english(3, "joyful", "joy", "joyful", "amazing", "thrilled");
+        english(2, "excited", "excited", "exciting", "eager");
+        english(2, "grateful", "grateful", "thankful", "thanks", "appreciate", "appreciated", "blessed");
+        english(2, "calm", "calm", "peaceful", "relaxed", "relaxing", "relax", "quiet", "rested");
+        english(1, "content", "good", "nice", "fine", "okay", "productive", "proud", "satisfied", "accomplished");
+        english(-3, "sad", "sad", "unhappy", "depressed", "miserable", "cried", "cry", "crying", "heartbroken", "upset", "terrible", "awful");
+        english(-2, "lonely", "lonely", "alone", "isolated");
+        english(-2, "anxious", "anxious", "worried", "worry", "nervous", "afraid", "scared", "fear", "panic");
+        english(-2, "stressed", "stressed", "stress", "pressure", "overwhelmed", "busy", "deadline");
+        english(-3, "angry", "angry", "furious", "mad", "hate", "annoyed", "irritated");
+        english(-2, "frustrated", "frustrated", "frustrating", "disappointed", "failed", "bad", "stuck");
+        english(-1, "tired", "tired", "exhausted", "sleepy", "drained", "sick", "bored");
+
+        chinese(3, "happy", "开心", "高兴", "快乐", "愉快", "幸福", "美好", "棒", "喜欢", "爱", "好玩", "不错");
+        chinese(3, "joyful", "欣喜", "兴奋不已", "太棒了");
+        chinese(2, "excited", "兴奋", "激动", "期待");
+        chinese(2, "grateful", "感谢", "感激", "感恩", "谢谢");
+        chinese(2, "calm", "平静", "放松", "安静", "轻松", "舒服", "惬意");
+        chinese(1, "content", "满足", "充实", "顺利", "还好", "满意", "成就感");
+        chinese(-3, "sad", "难过", "伤心", "悲伤", "痛苦", "哭", "失落", "郁闷", "沮丧", "糟糕", "崩溃");
+        chinese(-2, "lonely", "孤独", "寂寞", "孤单");
+        chinese(-2, "anxious", "焦虑", "担心", "紧张", "害怕", "不安", "恐惧");
+        chinese(-2, "stressed", "压力", "忙", "烦", "烦躁", "心累");
+        chinese(-3, "angry", "生气", "愤怒", "讨厌", "恼火", "气死");
+        chinese(-2, "frustrated", "失望", "挫败", "失败", "无奈", "不顺");
+        chinese(-1, "tired", "累", "疲惫", "困", "疲倦", "生病", "无聊");
+    }
+
+    private static void english(double weight, String mood, String... words) {
+        for (String word : words) {
+            ENGLISH.put(word, new Term(weight, mood));
+        }
+    }
+
+    private static void chinese(double weight, String mood, String... words) {
+        for (String word : words) {
+            CHINESE.put(word, new Term(weight, mood));
+        }
+    }
+
+    static {
+        CHINESE.keySet().forEach(word -> CHINESE_TERM_STARTS.add(word.charAt(0)));
+        CHINESE_NEGATORS.forEach(word -> CHINESE_TERM_STARTS.add(word.charAt(0)));
+        CHINESE_INTENSIFIERS.forEach(word -> CHINESE_TERM_STARTS.add(word.charAt(0)));
+    }
+
+    public Result score(String text) {
+        if (text == null || text.isBlank()) {
+            return new Result(0, "neutral", 0);
+        }
+
+        double total = 0;
+        Map<String, Double> moodWeights = new HashMap<>();
+        int hits = 0;
+        int negationScope = 0;
+        double boost = 1;
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < lower.length()) {
+            char c = lower.charAt(i);
+            String token;
+            Term term;
+            boolean negator;
+            boolean intensifier;
+
+            if (isWordChar(c)) {
+                int start = i;
+                while (i < lower.length() && (isWordChar(lower.charAt(i)) || lower.charAt(i) == '\'')) {
+                    i++;
+                }
+                token = lower.substring(start, i);
+                term = ENGLISH.get(token);
+                negator = ENGLISH_NEGATORS.contains(token);
+                intensifier = ENGLISH_INTENSIFIERS.contains(token);
+            } else if (CHINESE_TERM_STARTS.contains(c)) {
+                token = longestChineseMatch(lower, i);
+                i += token.length();
+                term = CHINESE.get(token);
+                negator = CHINESE_NEGATORS.contains(token);
+                intensifier = CHINESE_INTENSIFIERS.contains(token);
+            } else {
+                if (negationScope > 0 && Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN) {
+                    negationScope--;
+                }
+                if (c == '.' || c == '!' || c == '?' || c == '。' || c == '！' || c == '？' || c == '，' || c == ',') {
+                    negationScope = 0;
+                    boost = 1;
+                }
+                i++;
+                continue;
+            }
+
+            if (term != null) {
+                double weight = term.weight() * boost;
+                if (negationScope > 0) {
+                    weight *= NEGATION_FACTOR;
+                    negationScope = 0;
+                } else {
+                    moodWeights.merge(term.mood(), Math.abs(weight), Double::sum);
+                }
+                total += weight;
+                hits++;
+                boost = 1;
+            } else if (negator) {
+                negationScope = NEGATION_SCOPE;
+            } else if (intensifier) {
+                boost = INTENSIFIER_BOOST;
+            } else if (negationScope > 0) {
+                negationScope--;
+            }
+        }
+
+        double score = total / Math.sqrt(total * total + NORMALIZATION_ALPHA);
+        if (moodWeights.isEmpty()) {
+            return new Result(score, "neutral", 0);
+        }
+
+        double moodTotal = moodWeights.values().stream().mapToDouble(Double::doubleValue).sum();
+        Map.Entry<String, Double> dominant = moodWeights.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElseThrow();
+        double confidence = (dominant.getValue() / moodTotal) * Math.min(1.0, (double) hits / CONFIDENT_HITS);
+        return new Result(score, dominant.getKey(), confidence);
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+
+    private static String longestChineseMatch(String text, int start) {
+        int maxEnd = Math.min(text.length(), start + MAX_CHINESE_TERM_LENGTH);
+        for (int end = maxEnd; end > start + 1; end--) {
+            String candidate = text.substring(start, end);
+            if (CHINESE.containsKey(candidate) || CHINESE_NEGATORS.contains(candidate) || CHINESE_INTENSIFIERS.contains(candidate)) {
+                return candidate;
+            }
+        }
+        return text.substring(start, start + 1);
+    }
+}
@@ -0,0 +1,241 @@
+package com.aidiary.service;
+
+import com.aidiary.cache.LruCache;
+import com.aidiary.mapper.ChatSessionMapper;
+import com.aidiary.model.ChatMessage;
+import com.aidiary.model.ChatSession;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionContextMemory implements ChatMemory {
+
+    private final ChatSessionMapper chatSessionMapper;
+
+    @Value("${chat.context.window-size:20}")
+    private int windowSize;
+
+    @Value("${chat.context.max-sessions:5000}")
+    private int maxSessions;
+
+    private LruCache<Long, ContextWindow> windows;
+
+    public record ContextSnapshot(String summary, List<Message> messages, int tokens, Long foldUntilId) {
+    }
+
+    private record Entry(Long id, Message message, int tokens) {
+    }
+
+    @PostConstruct
+    protected void init() {
+        windows = new LruCache<>(maxSessions);
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        ContextWindow window = windows.get(Long.valueOf(conversationId));
+        if (window != null) {
+            for (Message message : messages) {
+                window.append(new Entry(null, message, TokenEstimator.estimate(message.getText())));
+            }
+        }
+    }
+
+    @Override
+    public List<Message> get(String conversationId) {
+        return window(Long.valueOf(conversationId)).messages();
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        clear(Long.valueOf(conversationId));
+    }
+
+    public void add(Long sessionId, ChatMessage message) {
+        ContextWindow window = windows.get(sessionId);
+        Entry entry = toEntry(message);
+        if (window != null && entry != null) {
+            window.append(entry);
+        }
+    }
+
+    public List<Message> get(Long sessionId) {
+        return window(sessionId).messages();
+    }
+
+    public ContextSnapshot getContext(Long sessionId, int tokenBudget) {
+        return window(sessionId).select(tokenBudget);
+    }
+
+    public void updateSummary(Long sessionId, String summary, Long summarizedUntilId) {
+        ContextWindow window = windows.get(sessionId);
+        if (window != null) {
+            window.setSummary(summary, summarizedUntilId);
+        }
+    }
+
+    public void resetSummaryRequest(Long sessionId) {
+        ContextWindow window = windows.get(sessionId);
+        if (window != null) {
+            window.resetSummaryRequest();
+        }
+    }
+
+    public void clear(Long sessionId) {
+        windows.remove(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.context.stats-interval:300000}")
+    public void logStats() {
+        long hits = windows.getHits();
+        long misses = windows.getMisses();
+        long total = hits + misses;
+        log.info("Session context memory: sessions={}/{}, hits={}, misses={}, hitRate={}%, evictions={}",
+                windows.size(), maxSessions, hits, misses, total == 0 ? 0 : hits * 100 / total, windows.getEvictions());
+    }
+
+    private ContextWindow window(Long sessionId) {
+        ContextWindow window = windows.get(sessionId);
+        if (window != null) {
+            return window;
+        }
+
+        window = new ContextWindow(windowSize);
+        ChatSession session = chatSessionMapper.getSessionById(sessionId);
+        if (session != null) {
+            window.setSummary(session.getSummary(), session.getSummarizedUntilId());
+        }
+        List<ChatMessage> recent = chatSessionMapper.getRecentMessagesBySessionId(sessionId, windowSize);
+        for (ChatMessage msg : recent) {
+            Entry entry = toEntry(msg);
+            if (entry != null) {
+                window.append(entry);
+            }
+        }
+        if (recent.size() == windowSize) {
+            window.markFoldDue();
+        }
+        windows.put(sessionId, window);
+        return window;
+    }
+
+    private Entry toEntry(ChatMessage msg) {
+        Message message;
+        if ("user".equals(msg.getRole())) {
+            message = new UserMessage(msg.getContent());
+        } else if ("assistant".equals(msg.getRole())) {
+            message = new AssistantMessage(msg.getContent());
+        } else {
+            return null;
+        }
+        int tokens = msg.getTokenCount() != null ? msg.getTokenCount() : TokenEstimator.estimate(msg.getContent());
+        return new Entry(msg.getId(), message, tokens);
+    }
+
+    private static class ContextWindow {
+        private final int capacity;
+        private final ArrayDeque<Entry> entries;
+        private String summary;
+        private int summaryTokens;
+        private long summarizedUntilId;
+        private long summaryRequestedUntilId;
+        private int unsummarizedEvictions;
+        private long newestId;
+
+        ContextWindow(int capacity) {
+            this.capacity = capacity;
+            this.entries = new ArrayDeque<>(capacity);
+        }
+
+        synchronized void append(Entry entry) {
+            // A message persisted while the window was being loaded can arrive both in the loaded rows and
+            // through add(); ids only grow, so anything at or below the newest one is already here.
+            if (entry.id() != null) {
+                if (entry.id() <= newestId) {
+                    return;
+                }
+                newestId = entry.id();
+            }
+            if (entries.size() == capacity) {
+                Entry evicted = entries.pollFirst();
+                if (evicted.id() == null || evicted.id() > summarizedUntilId) {
+                    unsummarizedEvictions++;
+                }
+            }
+            entries.addLast(entry);
+        }
+
+        synchronized List<Message> messages() {
+            List<Message> messages = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                messages.add(entry.message());
+            }
+            return messages;
+        }
+
+        synchronized void setSummary(String summary, Long summarizedUntilId) {
+            this.summary = summary;
+            this.summaryTokens = TokenEstimator.estimate(summary);
+            this.summarizedUntilId = summarizedUntilId != null ? summarizedUntilId : 0L;
+        }
+
+        synchronized void markFoldDue() {
+            unsummarizedEvictions = capacity;
+        }
+
+        synchronized void resetSummaryRequest() {
+            summaryRequestedUntilId = summarizedUntilId;
+        }
+
+        synchronized ContextSnapshot select(int tokenBudget) {
+            int remaining = tokenBudget - summaryTokens;
+            List<Message> selected = new ArrayList<>();
+            Long oldestIncludedId = null;
+            boolean truncated = false;
+            int used = 0;
+
+            Iterator<Entry> newestFirst = entries.descendingIterator();
+            while (newestFirst.hasNext()) {
+                Entry entry = newestFirst.next();
+                if (entry.id() != null && entry.id() <= summarizedUntilId) {
+                    break;
+                }
+                if (!selected.isEmpty() && used + entry.tokens() > remaining) {
+                    truncated = true;
+                    break;
+                }
+                selected.add(entry.message());
+                used += entry.tokens();
+                if (entry.id() != null) {
+                    oldestIncludedId = entry.id();
+                }
+            }
+            Collections.reverse(selected);
+
+            Long foldUntilId = null;
+            boolean foldDue = truncated || unsummarizedEvictions >= capacity / 2;
+            if (foldDue && oldestIncludedId != null && oldestIncludedId > summaryRequestedUntilId) {
+                summaryRequestedUntilId = oldestIncludedId;
+                unsummarizedEvictions = 0;
+                foldUntilId = oldestIncludedId;
+            }
+            return new ContextSnapshot(summary, selected, used + summaryTokens, foldUntilId);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.aidiary.service;
 
+import com.aidiary.mapper.DailySummaryMapper;
 import com.aidiary.mapper.TaskMapper;
 import com.aidiary.model.Task;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 @Slf4j
@@ -13,6 +15,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskService {
     private final TaskMapper taskMapper;
+    private final DailySummaryMapper dailySummaryMapper;
 
     public List<Task> findTasksByUserId(Long userId, String status) {
         return taskMapper.findByUserId(userId, status);
@@ -26,6 +29,7 @@ public class TaskService {
         task.setCreatedAt(LocalDateTime.now());
         task.setUpdatedAt(LocalDateTime.now());
         taskMapper.insert(task);
+        dailySummaryMapper.markStale(task.getUserId(), LocalDate.now());
         log.debug("created task: {}", task);
         return task;
     }
@@ -35,17 +39,24 @@ public class TaskService {
         if (existingTask == null) {
             return null;
         }
+        LocalDateTime previousUpdate = existingTask.getUpdatedAt();
         existingTask.setTitle(taskDetails.getTitle());
         existingTask.setDescription(taskDetails.getDescription());
         existingTask.setStatus(taskDetails.getStatus());
         existingTask.setDueDate(taskDetails.getDueDate());
         existingTask.setUpdatedAt(LocalDateTime.now());
         taskMapper.update(existingTask);
+        markTaskDaysStale(existingTask.getUserId(), previousUpdate);
         return existingTask;
     }
 
     public boolean deleteTask(Long id) {
-        return taskMapper.delete(id) > 0;
+        Task existingTask = taskMapper.findById(id);
+        if (existingTask == null || taskMapper.delete(id) == 0) {
+            return false;
+        }
+        markTaskDaysStale(existingTask.getUserId(), existingTask.getUpdatedAt());
+        return true;
     }
 
     public Task getTaskById(Long id) {
@@ -57,8 +68,18 @@ public class TaskService {
     }
 
     public Task updateTask(Task task) {
+        LocalDateTime previousUpdate = task.getUpdatedAt();
         task.setUpdatedAt(LocalDateTime.now());
         taskMapper.update(task);
+        markTaskDaysStale(task.getUserId(), previousUpdate);
         return task;
     }
+
+    private void markTaskDaysStale(Long userId, LocalDateTime previousUpdate) {
+        LocalDate today = LocalDate.now();
+        dailySummaryMapper.markStale(userId, today);
+        if (previousUpdate != null && !previousUpdate.toLocalDate().equals(today)) {
+            dailySummaryMapper.markStale(userId, previousUpdate.toLocalDate());
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package com.aidiary.service;
+
+import com.aidiary.config.ChatConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ToolExecutionEngine {
+
+    private final ChatModel chatModel;
+    private final ToolCallingManager toolCallingManager = ToolCallingManager.builder().build();
+
+    @Value("${ai.tools.max-iterations:3}")
+    private int maxIterations;
+
+    public record TurnResult(String reply, String modelText, List<ToolResponseMessage.ToolResponse> toolResponses,
+                             int llmCalls, int toolCalls) {
+    }
+
+    public TurnResult run(List<Message> history, List<ToolCallback> toolCallbacks) {
+        ToolCallingChatOptions options = ToolCallingChatOptions.builder()
+                .toolCallbacks(toolCallbacks)
+                .internalToolExecutionEnabled(false)
+                .build();
+
+        List<Message> messages = new ArrayList<>(history.size() + 1);
+        messages.add(new SystemMessage(ChatConfig.SYSTEM_PROMPT));
+        messages.addAll(history);
+        Prompt prompt = new Prompt(messages, options);
+
+        List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>();
+        StringBuilder modelText = new StringBuilder();
+        int llmCalls = 1;
+        int toolCalls = 0;
+        int iterations = 0;
+
+        ChatResponse response = chatModel.call(prompt);
+        while (response != null && response.hasToolCalls()) {
+            if (iterations >= maxIterations) {
+                log.warn("Tool iteration cap of {} reached, stopping with pending tool calls", maxIterations);
+                break;
+            }
+            iterations++;
+
+            AssistantMessage toolCallMessage = response.getResult().getOutput();
+            toolCalls += toolCallMessage.getToolCalls().size();
+            appendText(modelText, toolCallMessage.getText());
+
+            ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt, response);
+            List<Message> conversation = result.conversationHistory();
+            if (!conversation.isEmpty() && conversation.get(conversation.size() - 1) instanceof ToolResponseMessage toolResponseMessage) {
+                toolResponses.addAll(toolResponseMessage.getResponses());
+            }
+
+            if (result.returnDirect()) {
+                log.info("Chat turn completed directly from tool results: llmCalls={}, toolCalls={}", llmCalls, toolCalls);
+                return new TurnResult(null, modelText.toString(), toolResponses, llmCalls, toolCalls);
+            }
+
+            prompt = new Prompt(conversation, options);
+            response = chatModel.call(prompt);
+            llmCalls++;
+        }
+
+        String reply = null;
+        if (response != null && response.getResult() != null && !response.hasToolCalls()) {
+            reply = response.getResult().getOutput().getText();
+        }
+        log.info("Chat turn completed: llmCalls={}, toolCalls={}", llmCalls, toolCalls);
+        return new TurnResult(reply, modelText.toString(), toolResponses, llmCalls, toolCalls);
+    }
+
+    private void appendText(StringBuilder target, String text) {
+        if (text != null && !text.isBlank()) {
+            if (target.length() > 0) {
+                target.append("\n");
+            }
+            target.append(text.trim());
+        }
+    }
+}
@@ -3,13 +3,11 @@ package com.aidiary.tools;
 import com.aidiary.model.Reminder;
 import com.aidiary.service.ReminderService;
 import com.aidiary.security.SecurityUtils;
-import com.aidiary.mapper.UserMapper;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.aidiary.model.DiaryEntry;
 import com.aidiary.service.DiaryEntryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 import org.springframework.ai.tool.annotation.Tool;
 import java.time.LocalDate;
@@ -22,68 +20,32 @@ import java.time.format.DateTimeFormatter;
 public class DiaryTools {
     private final DiaryEntryService diaryEntryService;
     private final ReminderService reminderService;
-    private final UserMapper userMapper;
-    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
 
-    @Tool(name = "append_diary",
-            description = "Write text to today's diary. Parameters JSON: {\"title\":\"optional title\",\"content\":\"content (required)\",\"mood\":\"optional mood\"}")
-    public String append_diary(String json) {
-        log.info("=== TOOL CALLED: append_diary with json={} ===", json);
-        
-        if (json == null || json.trim().isEmpty()) {
-            log.error("append_diary called with null or empty json parameter");
-            return "ERROR: Parameters cannot be empty. Please provide valid JSON parameters: {\"title\":\"optional title\",\"content\":\"content (required)\",\"mood\":\"optional mood\"}";
-        }
-        
-        try {
-            JsonNode node;
-            try {
-                node = mapper.readTree(json);
-            } catch (Exception e) {
-                log.error("Failed to parse JSON: {}, json={}", e.getMessage(), json);
-                return "ERROR: Invalid JSON format: " + e.getMessage();
-            }
-            
-            String title = null;
-            if (node.hasNonNull("title")) {
-                String titleStr = node.get("title").asText();
-                if (titleStr != null && !titleStr.trim().isEmpty()) {
-                    title = titleStr.trim();
-                }
-            }
-            
-            String content = null;
-            if (node.hasNonNull("content")) {
-                content = node.get("content").asText();
-                if (content != null) {
-                    content = content.trim();
-                }
-            }
-            
-            if (content == null || content.isEmpty()) {
-                log.error("append_diary called without required 'content' field or content is empty. JSON: {}", json);
-                return "ERROR: content field is required and cannot be empty. Please provide valid JSON parameters: {\"title\":\"optional title\",\"content\":\"content (required)\",\"mood\":\"optional mood\"}";
-            }
-            
-            String mood = null;
-            if (node.hasNonNull("mood")) {
-                String moodStr = node.get("mood").asText();
-                if (moodStr != null && !moodStr.trim().isEmpty()) {
-                    mood = moodStr.trim();
-                }
-            }
+    @Tool(name = "append_diary", returnDirect = true,
+            description = "Write an entry to the user's diary for today.")
+    public ToolResult append_diary(
+            @ToolParam(description = "Short title for the entry, at most 10 characters, in the user's language. Omit it to have one generated later", required = false) String title,
+            @ToolParam(description = "Diary content in the user's own words") String content,
+            @ToolParam(description = "Mood as a single lowercase English word, e.g. happy, sad, calm, anxious", required = false) String mood) {
+        log.info("=== TOOL CALLED: append_diary with title={}, mood={} ===", title, mood);
 
-            log.info("Parsed diary data: title={}, content length={}, mood={}", 
-                    title, content.length(), mood);
+        if (content == null || content.trim().isEmpty()) {
+            log.error("append_diary called without required 'content' or content is empty");
+            return ToolResult.error("content is required and cannot be empty");
+        }
+        content = content.trim();
+        title = title != null && !title.trim().isEmpty() ? title.trim() : null;
+        mood = mood != null && !mood.trim().isEmpty() ? mood.trim() : null;
 
-            Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+        try {
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             if (currentUserId == null) {
                 log.error("No authenticated user found for diary entry");
-                return "ERROR: User not authenticated";
+                return ToolResult.error("User not authenticated");
             }
-            
+
             log.info("Creating diary entry for user ID: {}", currentUserId);
-            
+
             var entry = new DiaryEntry();
             entry.setUserId(currentUserId);
             entry.setTitle(title);
@@ -91,50 +53,53 @@ public class DiaryTools {
             entry.setMood(mood);
             entry.setEntryDate(LocalDate.now());
 
-            log.info("Calling diaryEntryService.createDiaryEntry()...");
-            diaryEntryService.createDiaryEntry(entry);
-            
-            log.info("=== DIARY ENTRY CREATED SUCCESSFULLY: id={}, title={}, content length={} ===", 
-                    entry.getId(), title, content.length());
-            
-            return "OK id=" + entry.getId() + " title=" + (title != null ? title : "Untitled");
+            DiaryEntryService.WriteResult result = diaryEntryService.createDiaryEntryIfAbsent(entry);
+            if (!result.created()) {
+                log.warn("Diary entry with same content was just written, skipping duplicate: id={}", result.entry().getId());
+                return ToolResult.ok(result.entry().getId(), result.entry().getTitle());
+            }
+
+            log.info("=== DIARY ENTRY CREATED SUCCESSFULLY: id={}, title={}, content length={} ===",
+                    entry.getId(), entry.getTitle(), content.length());
+
+            return ToolResult.ok(entry.getId(), entry.getTitle());
         } catch (Exception e) {
             log.error("=== ERROR in appendDiary tool: {} ===", e.getMessage(), e);
-            return "ERROR: " + e.getMessage();
+            return ToolResult.error(e.getMessage());
         }
     }
 
-    @Tool(name = "set_reminder",
-            description = "Set a reminder for a future event or task. Parameters JSON: {\"task_id\":\"associated task ID (optional)\", \"reminder_time\":\"reminder time (ISO 8601 format, YYYY-MM-DDTHH:mm:ss)\", \"description\":\"short description of reminder (optional)\"}")
-    public String set_reminder(String json) {
+    @Tool(name = "set_reminder", returnDirect = true,
+            description = "Set a reminder for a future event or task.")
+    public ToolResult set_reminder(
+            @ToolParam(description = "Associated task ID", required = false) Long taskId,
+            @ToolParam(description = "Reminder time in ISO 8601 format, YYYY-MM-DDTHH:mm:ss") String reminderTime,
+            @ToolParam(description = "Short description of the reminder", required = false) String description) {
         try {
-            var node = mapper.readTree(json);
-            var taskId = node.hasNonNull("task_id") ? node.get("task_id").asLong() : null;
-            var reminderTimeStr = node.get("reminder_time").asText();
-            LocalDateTime reminderTime = LocalDateTime.parse(reminderTimeStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            LocalDateTime time = LocalDateTime.parse(reminderTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-            if (reminderTime.isBefore(LocalDateTime.now())) {
-                log.warn("Attempted to set reminder in the past: {}", reminderTime);
-                return "ERROR: Reminder time must be in the future.";
+            if (time.isBefore(LocalDateTime.now())) {
+                log.warn("Attempted to set reminder in the past: {}", time);
+                return ToolResult.error("Reminder time must be in the future.");
             }
 
             var reminder = new Reminder();
-            Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             if (currentUserId == null) {
                 log.error("No authenticated user found for reminder");
-                return "ERROR: User not authenticated";
+                return ToolResult.error("User not authenticated");
             }
             reminder.setUserId(currentUserId);
             reminder.setTaskId(taskId);
-            reminder.setReminderTime(reminderTime);
+            reminder.setReminderTime(time);
 
             reminderService.createReminder(reminder);
             log.info("Reminder set via AI tool: id={}, time={}", reminder.getId(), reminder.getReminderTime());
-            return "OK id=" + reminder.getId();
+            return ToolResult.reminder(reminder.getId(), reminder.getReminderTime().toString());
 
         } catch (Exception e) {
             log.error("Error in setReminder tool: {}", e.getMessage(), e);
-            return "ERROR: Failed to parse reminder details or time is in the past - " + e.getMessage();
+            return ToolResult.error("Failed to parse reminder details or time is in the past - " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
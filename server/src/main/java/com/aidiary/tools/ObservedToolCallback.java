@@ -0,0 +1,51 @@
+package com.aidiary.tools;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.function.BiConsumer;
+
+public class ObservedToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final SecurityContext securityContext;
+    private final BiConsumer<ToolCallback, String> onResult;
+
+    public ObservedToolCallback(ToolCallback delegate, SecurityContext securityContext, BiConsumer<ToolCallback, String> onResult) {
+        this.delegate = delegate;
+        this.securityContext = securityContext;
+        this.onResult = onResult;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            String result = toolContext != null ? delegate.call(toolInput, toolContext) : delegate.call(toolInput);
+            onResult.accept(delegate, result);
+            return result;
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+}
@@ -3,10 +3,9 @@ package com.aidiary.tools;
 import com.aidiary.model.Task;
 import com.aidiary.service.TaskService;
 import com.aidiary.security.SecurityUtils;
-import com.aidiary.mapper.UserMapper;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 import org.springframework.ai.tool.annotation.Tool;
 import java.time.LocalDate;
@@ -18,87 +17,71 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TaskTools {
     private final TaskService taskService;
-    private final UserMapper userMapper;
-    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
-
-    @Tool(name = "create_task",
-            description = "Create a new task. Parameters JSON: {\"title\":\"task title (required)\",\"description\":\"task description (optional)\",\"dueDate\":\"due date (YYYY-MM-DD format, optional)\"}")
-    public String create_task(String json) {
-        log.info("=== TOOL CALLED: create_task with json={} ===", json);
-        
-        if (json == null || json.trim().isEmpty()) {
-            log.error("create_task called with null or empty json parameter");
-            return "ERROR: Parameters cannot be empty. Please provide valid JSON parameters: {\"title\":\"task title (required)\",\"description\":\"task description (optional)\",\"dueDate\":\"due date (YYYY-MM-DD format, optional)\"}";
-        }
-        
-        try {
-            var node = mapper.readTree(json);
-            
-            if (!node.hasNonNull("title") || node.get("title").asText().trim().isEmpty()) {
-                log.error("create_task called without required 'title' field");
-                return "ERROR: title field is required and cannot be empty";
-            }
-            
-            var title = node.get("title").asText();
-            var description = node.hasNonNull("description") ? node.get("description").asText() : null;
-            var dueDateStr = node.hasNonNull("dueDate") ? node.get("dueDate").asText() : null;
 
-            log.info("Parsed task data: title={}, description={}, dueDate={}", title, description, dueDateStr);
+    @Tool(name = "create_task", returnDirect = true,
+            description = "Create a new task for the user.")
+    public ToolResult create_task(
+            @ToolParam(description = "Task title") String title,
+            @ToolParam(description = "Task description", required = false) String description,
+            @ToolParam(description = "Due date in YYYY-MM-DD format", required = false) String dueDate) {
+        log.info("=== TOOL CALLED: create_task with title={}, dueDate={} ===", title, dueDate);
+
+        if (title == null || title.trim().isEmpty()) {
+            log.error("create_task called without required 'title' field");
+            return ToolResult.error("title is required and cannot be empty");
+        }
 
+        try {
             var task = new Task();
-            Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             if (currentUserId == null) {
                 log.error("No authenticated user found for task creation");
-                return "ERROR: User not authenticated";
+                return ToolResult.error("User not authenticated");
             }
-            
+
             log.info("Creating task for user ID: {}", currentUserId);
             task.setUserId(currentUserId);
-            task.setTitle(title);
+            task.setTitle(title.trim());
             task.setDescription(description);
             task.setStatus("pending");
-            
-            if (dueDateStr != null && !dueDateStr.isEmpty()) {
+
+            if (dueDate != null && !dueDate.isEmpty()) {
                 try {
-                    LocalDate dueDate = LocalDate.parse(dueDateStr, DateTimeFormatter.ISO_LOCAL_DATE);
-                    task.setDueDate(dueDate);
+                    task.setDueDate(LocalDate.parse(dueDate, DateTimeFormatter.ISO_LOCAL_DATE));
                 } catch (Exception e) {
-                    log.warn("Invalid due date format: {}, ignoring", dueDateStr);
+                    log.warn("Invalid due date format: {}, ignoring", dueDate);
                 }
             }
 
-            log.info("Calling taskService.createTask()...");
             taskService.createTask(task);
-            log.info("=== TASK CREATED SUCCESSFULLY: id={}, title={} ===", task.getId(), title);
-            return "OK id=" + task.getId() + " title=" + title;
+            log.info("=== TASK CREATED SUCCESSFULLY: id={}, title={} ===", task.getId(), task.getTitle());
+            return ToolResult.ok(task.getId(), task.getTitle());
         } catch (Exception e) {
             log.error("=== ERROR in createTask tool: {} ===", e.getMessage(), e);
-            return "ERROR: " + e.getMessage();
+            return ToolResult.error(e.getMessage());
         }
     }
 
-    @Tool(name = "update_task",
-            description = "Update an existing task's status or information. Parameters JSON: {\"taskId\":\"task ID (required)\",\"status\":\"new status (pending/in_progress/completed, optional)\",\"description\":\"new description (optional)\"}")
-    public String update_task(String json) {
+    @Tool(name = "update_task", returnDirect = true,
+            description = "Update an existing task's status or description.")
+    public ToolResult update_task(
+            @ToolParam(description = "Task ID") Long taskId,
+            @ToolParam(description = "New status: pending, in_progress or completed", required = false) String status,
+            @ToolParam(description = "New description", required = false) String description) {
         try {
-            var node = mapper.readTree(json);
-            var taskId = node.get("taskId").asLong();
-            var status = node.hasNonNull("status") ? node.get("status").asText() : null;
-            var description = node.hasNonNull("description") ? node.get("description").asText() : null;
-
-            Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             if (currentUserId == null) {
                 log.error("No authenticated user found for task update");
-                return "ERROR: User not authenticated";
+                return ToolResult.error("User not authenticated");
             }
 
             if (status != null && !status.matches("pending|in_progress|completed")) {
-                return "ERROR: Invalid status. Must be pending, in_progress, or completed";
+                return ToolResult.error("Invalid status. Must be pending, in_progress, or completed");
             }
 
-            var task = taskService.getTaskById(taskId);
+            var task = taskId != null ? taskService.getTaskById(taskId) : null;
             if (task == null || !task.getUserId().equals(currentUserId)) {
-                return "ERROR: Task not found or access denied";
+                return ToolResult.error("Task not found or access denied");
             }
 
             if (status != null) {
@@ -110,37 +93,31 @@ public class TaskTools {
 
             taskService.updateTask(task);
             log.info("Task updated via AI tool: id={}, status={}", taskId, status);
-            return "OK id=" + taskId + " status=" + (status != null ? status : "unchanged");
+            return ToolResult.task(taskId, task.getTitle(), task.getStatus());
         } catch (Exception e) {
             log.error("Error in updateTask tool: {}", e.getMessage(), e);
-            return "ERROR: " + e.getMessage();
+            return ToolResult.error(e.getMessage());
         }
     }
 
     @Tool(name = "list_tasks",
-            description = "Get the user's task list. Parameters JSON: {\"status\":\"filter status (pending/in_progress/completed, optional)\",\"limit\":\"limit count (optional, default 10)\"}")
-    public String list_tasks(String json) {
+            description = "Get the user's task list.")
+    public String list_tasks(
+            @ToolParam(description = "Filter by status: pending, in_progress or completed", required = false) String status,
+            @ToolParam(description = "Maximum number of tasks to return, default 10", required = false) Integer limit) {
         try {
-            var node = mapper.readTree(json);
-            var status = node.hasNonNull("status") ? node.get("status").asText() : null;
-            int limit = node.hasNonNull("limit") ? node.get("limit").asInt() : 10;
+            int max = limit != null ? limit : 10;
 
-            Long currentUserId = SecurityUtils.getCurrentUserId(userMapper);
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             if (currentUserId == null) {
                 log.error("No authenticated user found for task listing");
                 return "ERROR: User not authenticated";
             }
 
-            var tasks = taskService.getTasksByUserId(currentUserId);
-            
-            if (status != null) {
-                tasks = tasks.stream()
-                    .filter(task -> status.equals(task.getStatus()))
-                    .collect(Collectors.toList());
-            }
+            var tasks = taskService.findTasksByUserId(currentUserId, status);
 
-            if (limit > 0) {
-                tasks = tasks.stream().limit(limit).collect(Collectors.toList());
+            if (max > 0) {
+                tasks = tasks.stream().limit(max).collect(Collectors.toList());
             }
 
             var result = new StringBuilder();
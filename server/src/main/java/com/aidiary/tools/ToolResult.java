@@ -0,0 +1,23 @@
+package com.aidiary.tools;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ToolResult(boolean ok, Long id, String title, String status, String time, String error) {
+
+    public static ToolResult ok(Long id, String title) {
+        return new ToolResult(true, id, title, null, null, null);
+    }
+
+    public static ToolResult task(Long id, String title, String status) {
+        return new ToolResult(true, id, title, status, null, null);
+    }
+
+    public static ToolResult reminder(Long id, String time) {
+        return new ToolResult(true, id, null, null, time, null);
+    }
+
+    public static ToolResult error(String error) {
+        return new ToolResult(false, null, null, null, null, error);
+    }
+}
@@ -0,0 +1,11 @@
+CREATE TABLE `daily_summaries` (
+                                   `user_id` BIGINT NOT NULL,
+                                   `summary_date` DATE NOT NULL,
+                                   `input_fingerprint` CHAR(64),
+                                   `summary_json` MEDIUMTEXT,
+                                   `stale` BOOLEAN NOT NULL DEFAULT TRUE,
+                                   `version` INT NOT NULL DEFAULT 0,
+                                   `generated_at` DATETIME,
+                                   PRIMARY KEY (`user_id`, `summary_date`),
+                                   FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
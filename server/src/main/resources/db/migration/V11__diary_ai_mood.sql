@@ -0,0 +1,4 @@
+-- Mood inferred for entries the user left unlabelled.
+
+ALTER TABLE `diary_entries`
+    ADD COLUMN `ai_mood` VARCHAR(50) AFTER `mood`;
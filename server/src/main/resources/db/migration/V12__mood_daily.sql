@@ -0,0 +1,10 @@
+CREATE TABLE `mood_daily` (
+                              `user_id` BIGINT NOT NULL,
+                              `mood_date` DATE NOT NULL,
+                              `entry_count` INT NOT NULL DEFAULT 0,
+                              `mood_counts` VARCHAR(1000),
+                              `dominant_mood` VARCHAR(50),
+                              `avg_sentiment` REAL,
+                              PRIMARY KEY (`user_id`, `mood_date`),
+                              FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,5 @@
+-- Entries still waiting for the background enrichment pipeline have ai_enriched_at = NULL.
+
+ALTER TABLE `diary_entries`
+    ADD COLUMN `ai_enriched_at` DATETIME AFTER `ai_sentiment_score`,
+    ADD INDEX `idx_ai_enriched_at` (`ai_enriched_at`);
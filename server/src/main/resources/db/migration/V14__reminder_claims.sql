@@ -0,0 +1,6 @@
+-- Lease columns that partition due reminders across replicas.
+
+ALTER TABLE `reminders`
+    ADD COLUMN `claimed_by` VARCHAR(64) AFTER `is_sent`,
+    ADD COLUMN `claimed_until` DATETIME AFTER `claimed_by`,
+    ADD INDEX `idx_reminder_claimed_by` (`claimed_by`, `is_sent`);
@@ -0,0 +1,19 @@
+CREATE TABLE `notification_outbox` (
+                                       `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                       `reminder_id` BIGINT,
+                                       `user_id` BIGINT NOT NULL,
+                                       `channel` VARCHAR(32) NOT NULL,
+                                       `payload` TEXT NOT NULL,
+                                       `status` VARCHAR(16) NOT NULL DEFAULT 'pending',
+                                       `attempts` INT NOT NULL DEFAULT 0,
+                                       `next_attempt_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                       `last_error` VARCHAR(500),
+                                       `claimed_by` VARCHAR(64),
+                                       `claimed_until` DATETIME,
+                                       `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                       `delivered_at` DATETIME,
+                                       FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE,
+                                       INDEX `idx_outbox_status_next` (`status`, `next_attempt_at`),
+                                       INDEX `idx_outbox_claimed_by` (`claimed_by`, `status`),
+                                       INDEX `idx_outbox_user_channel` (`user_id`, `channel`, `status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,13 @@
+-- Composite indexes for the per-user hot paths.
+-- tasks: TaskMapper.findByUserId (user_id [+ status] ORDER BY created_at)
+--        TaskMapper.findByUserIdAndDate (user_id + updated_at range)
+-- diary_entries: DiaryEntryMapper.findByUserIdAndDateRange (user_id + entry_date range ORDER BY entry_date, created_at)
+
+ALTER TABLE `tasks`
+    ADD INDEX `idx_tasks_user_status_created` (`user_id`, `status`, `created_at`),
+    ADD INDEX `idx_tasks_user_updated` (`user_id`, `updated_at`),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE `diary_entries`
+    ADD INDEX `idx_diary_user_date_created` (`user_id`, `entry_date`, `created_at`),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,10 @@
+-- Attempt tracking for the batch titler: each run claims entries under its own token, failed entries
+-- wait until title_retry_at before being picked again and are given up after a bounded number of tries.
+
+ALTER TABLE `diary_entries`
+    ADD COLUMN `title_attempts` INT NOT NULL DEFAULT 0 AFTER `title_provisional`,
+    ADD COLUMN `title_retry_at` DATETIME AFTER `title_attempts`,
+    ADD COLUMN `title_claim` VARCHAR(36) AFTER `title_retry_at`,
+    DROP INDEX `idx_title_provisional`,
+    ADD INDEX `idx_title_provisional` (`title_provisional`, `title_retry_at`),
+    ADD INDEX `idx_title_claim` (`title_claim`);
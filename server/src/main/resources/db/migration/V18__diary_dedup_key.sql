@@ -0,0 +1,12 @@
+-- Duplicate tool writes are rejected by the database: a write that asks for de-duplication stores its content hash
+-- in dedup_hash, which is unique per user and day. The hash is cleared once the de-duplication window has passed,
+-- or when the entry is edited, so the same text can be written again later.
+--
+-- uk_diary_dedup replaces idx_diary_content_hash from V8. Every de-duplication lookup (findByDedupHash,
+-- releaseDedupHash) now filters on (user_id, entry_date, dedup_hash) and is served by the unique key. No query
+-- filters on content_hash by user and day any more; content_hash is only compared on rows already found by id.
+
+ALTER TABLE `diary_entries`
+    ADD COLUMN `dedup_hash` CHAR(64) AFTER `content_hash`,
+    DROP INDEX `idx_diary_content_hash`,
+    ADD UNIQUE INDEX `uk_diary_dedup` (`user_id`, `entry_date`, `dedup_hash`);
@@ -0,0 +1,8 @@
+-- When a task was completed, so activity reports no longer take updated_at (bumped by any later edit) as the completion day.
+-- Tasks completed before this column existed keep their last update time as the best available estimate.
+
+ALTER TABLE `tasks`
+    ADD COLUMN `completed_at` DATETIME AFTER `due_date`,
+    ADD INDEX `idx_tasks_user_completed` (`user_id`, `completed_at`);
+
+UPDATE `tasks` SET `completed_at` = `updated_at` WHERE `status` = 'completed';
@@ -0,0 +1,4 @@
+-- JWTs carry the user's token version; bumping it revokes every token issued before.
+
+ALTER TABLE `users`
+    ADD COLUMN `token_version` INT NOT NULL DEFAULT 0 AFTER `password_hash`;
@@ -0,0 +1,8 @@
+-- Tail-window and keyset pagination read chat_messages by (session_id, id).
+-- The new index also backs the session_id foreign key, so it is added before the old one is dropped.
+
+ALTER TABLE chat_messages
+    ADD INDEX idx_session_id_id (session_id, id);
+
+ALTER TABLE chat_messages
+    DROP INDEX idx_session_id;
@@ -0,0 +1,7 @@
+-- The current session is the user's most recently updated one.
+
+ALTER TABLE chat_sessions
+    ADD INDEX idx_user_updated (user_id, updated_at);
+
+ALTER TABLE chat_sessions
+    DROP INDEX idx_user_id;
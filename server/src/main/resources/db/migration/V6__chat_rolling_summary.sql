@@ -0,0 +1,8 @@
+-- Rolling conversation summary and per-message token counts for prompt budgeting.
+
+ALTER TABLE chat_sessions
+    ADD COLUMN summary TEXT AFTER title,
+    ADD COLUMN summarized_until_id BIGINT AFTER summary;
+
+ALTER TABLE chat_messages
+    ADD COLUMN token_count INT AFTER content;
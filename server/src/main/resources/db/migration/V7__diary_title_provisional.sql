@@ -0,0 +1,5 @@
+-- Entries written without a title get a provisional one until the batch titler replaces it.
+
+ALTER TABLE `diary_entries`
+    ADD COLUMN `title_provisional` BOOLEAN NOT NULL DEFAULT FALSE AFTER `title`,
+    ADD INDEX `idx_title_provisional` (`title_provisional`);
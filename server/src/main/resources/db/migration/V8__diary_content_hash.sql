@@ -0,0 +1,5 @@
+-- Fingerprint of the normalised content, used to detect duplicate writes.
+
+ALTER TABLE `diary_entries`
+    ADD COLUMN `content_hash` CHAR(64) AFTER `content`,
+    ADD INDEX `idx_diary_content_hash` (`user_id`, `entry_date`, `content_hash`);
@@ -0,0 +1,7 @@
+CREATE TABLE `llm_response_cache` (
+                                      `cache_key` CHAR(64) PRIMARY KEY,
+                                      `template_id` VARCHAR(64) NOT NULL,
+                                      `response` TEXT NOT NULL,
+                                      `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                      INDEX `idx_llm_cache_template` (`template_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,105 @@
+package com.aidiary.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTtl() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, 50);
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a"));
+
+        Thread.sleep(80);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPutRefreshesTtl() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, 100);
+        cache.put("a", 1);
+        Thread.sleep(60);
+        cache.put("a", 2);
+        Thread.sleep(60);
+
+        assertEquals(2, cache.get("a"));
+    }
+
+    @Test
+    public void testPurgeExpiredDropsOnlyExpiredEntries() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, 50);
+        cache.put("old", 1);
+        Thread.sleep(80);
+        cache.put("fresh", 2);
+
+        cache.purgeExpired();
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.get("fresh"));
+    }
+
+    @Test
+    public void testNoTtlNeverExpires() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+        cache.put("a", 1);
+        Thread.sleep(20);
+        cache.purgeExpired();
+
+        assertEquals(1, cache.get("a"));
+    }
+
+    @Test
+    public void testZeroSizeCachesNothing() {
+        LruCache<String, Integer> cache = new LruCache<>(0);
+        cache.put("a", 1);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRemoveAndRemoveIf() {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        assertEquals(1, cache.remove("a"));
+        assertNull(cache.remove("a"));
+        cache.removeIf((key, value) -> value % 2 == 0);
+
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    public void testHitAndMissCounters() {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+        cache.put("a", 1);
+        cache.get("a");
+        cache.get("a");
+        cache.get("missing");
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
@@ -0,0 +1,96 @@
+package com.aidiary.mapper;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class MapperIndexUsageTest {
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void taskFindByUserIdUsesIndex() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", 1L);
+        params.put("status", null);
+        assertUsesIndex("com.aidiary.mapper.TaskMapper.findByUserId", params, "tasks");
+    }
+
+    @Test
+    public void taskFindByUserIdAndStatusUsesIndex() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", 1L);
+        params.put("status", "pending");
+        assertUsesIndex("com.aidiary.mapper.TaskMapper.findByUserId", params, "tasks");
+    }
+
+    @Test
+    public void taskFindByUserIdAndDateUsesIndex() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", 1L);
+        params.put("date", LocalDate.now());
+        assertUsesIndex("com.aidiary.mapper.TaskMapper.findByUserIdAndDate", params, "tasks");
+    }
+
+    @Test
+    public void diaryFindByUserIdAndDateRangeUsesIndex() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", 1L);
+        params.put("startDate", LocalDate.now().minusDays(30));
+        params.put("endDate", LocalDate.now());
+        assertUsesIndex("com.aidiary.mapper.DiaryEntryMapper.findByUserIdAndDateRange", params, "diary_entries");
+    }
+
+    @Test
+    public void diaryFindByDedupHashUsesIndex() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", 1L);
+        params.put("entryDate", LocalDate.now());
+        params.put("dedupHash", "0".repeat(64));
+        assertUsesIndex("com.aidiary.mapper.DiaryEntryMapper.findByDedupHash", params, "diary_entries");
+    }
+
+    @Test
+    public void taskCountActivityByDayUsesIndex() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", 1L);
+        params.put("startDate", LocalDate.now().minusDays(30));
+        params.put("endDate", LocalDate.now());
+        assertUsesIndex("com.aidiary.mapper.TaskMapper.countActivityByDay", params, "tasks");
+    }
+
+    private void assertUsesIndex(String statementId, Map<String, Object> params, String table) {
+        BoundSql boundSql = sqlSessionFactory.getConfiguration().getMappedStatement(statementId).getBoundSql(params);
+        Object[] args = boundSql.getParameterMappings().stream()
+                .map(ParameterMapping::getProperty)
+                .map(property -> boundSql.hasAdditionalParameter(property)
+                        ? boundSql.getAdditionalParameter(property)
+                        : params.get(property))
+                .toArray();
+
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + boundSql.getSql(), args);
+        Map<String, Object> row = plan.stream()
+                .filter(r -> table.equals(r.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No plan row for " + table + " in " + plan));
+
+        assertNotEquals("ALL", row.get("type"), statementId + " does a full table scan: " + row);
+        assertNotNull(row.get("key"), statementId + " uses no index: " + row);
+    }
+}
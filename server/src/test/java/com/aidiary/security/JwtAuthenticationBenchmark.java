@@ -0,0 +1,38 @@
+package com.aidiary.security;
+
+import com.aidiary.mapper.UserMapper;
+import com.aidiary.support.Benchmarks;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+
+import static org.mockito.Mockito.*;
+
+// Old filter path (verify and parse on every request) vs. authenticate() with the verified-token cache.
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs256";
+
+    @Test
+    public void compareFilterPaths() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.findTokenVersion(anyLong())).thenReturn(0);
+        JwtTokenProvider provider = new JwtTokenProvider(userMapper);
+        ReflectionTestUtils.setField(provider, "secretKeyPlain", SECRET);
+        provider.init();
+        String token = provider.createToken(1L, "alice", 0);
+
+        JwtParser parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Base64.getEncoder().encode(SECRET.getBytes())))
+                .build();
+
+        Benchmarks.measure("parse and verify on every request", 5, 10, 20_000,
+                () -> parser.parseClaimsJws(token).getBody().getSubject());
+        Benchmarks.measure("authenticate (verified-token cache)", 5, 10, 20_000,
+                () -> provider.authenticate(token));
+    }
+}
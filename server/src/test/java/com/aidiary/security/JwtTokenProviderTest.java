@@ -0,0 +1,92 @@
+package com.aidiary.security;
+
+import com.aidiary.mapper.UserMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs256";
+
+    private JwtTokenProvider newProvider(UserMapper userMapper) {
+        JwtTokenProvider provider = new JwtTokenProvider(userMapper);
+        ReflectionTestUtils.setField(provider, "secretKeyPlain", SECRET);
+        provider.init();
+        return provider;
+    }
+
+    @Test
+    public void testAuthenticateCurrentToken() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.findTokenVersion(1L)).thenReturn(0);
+        JwtTokenProvider provider = newProvider(userMapper);
+
+        Authentication auth = provider.authenticate(provider.createToken(1L, "alice", 0));
+
+        assertNotNull(auth);
+        JwtUserPrincipal principal = (JwtUserPrincipal) auth.getPrincipal();
+        assertEquals(1L, principal.getUserId());
+        assertEquals("alice", principal.getUsername());
+    }
+
+    @Test
+    public void testRevokedTokenIsRejectedAfterRestart() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.findTokenVersion(1L)).thenReturn(0);
+        String token = newProvider(userMapper).createToken(1L, "alice", 0);
+
+        // logout-all on another instance bumped the stored version
+        when(userMapper.findTokenVersion(1L)).thenReturn(1);
+        JwtTokenProvider restarted = newProvider(userMapper);
+
+        assertThrows(IllegalArgumentException.class, () -> restarted.authenticate(token));
+    }
+
+    @Test
+    public void testLocalRevocationTakesEffectImmediately() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.findTokenVersion(1L)).thenReturn(0);
+        JwtTokenProvider provider = newProvider(userMapper);
+        String token = provider.createToken(1L, "alice", 0);
+        assertNotNull(provider.authenticate(token));
+
+        provider.revokeTokensBefore(1L, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> provider.authenticate(token));
+        assertNotNull(provider.authenticate(provider.createToken(1L, "alice", 1)));
+    }
+
+    @Test
+    public void testTokenVersionIsCachedBetweenRequests() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.findTokenVersion(1L)).thenReturn(0);
+        JwtTokenProvider provider = newProvider(userMapper);
+        String token = provider.createToken(1L, "alice", 0);
+
+        provider.authenticate(token);
+        provider.authenticate(token);
+
+        verify(userMapper, times(1)).findTokenVersion(1L);
+    }
+
+    @Test
+    public void testDeletedUserIsRejected() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.findTokenVersion(1L)).thenReturn(null);
+        JwtTokenProvider provider = newProvider(userMapper);
+
+        assertThrows(IllegalArgumentException.class, () -> provider.authenticate(provider.createToken(1L, "alice", 0)));
+    }
+
+    @Test
+    public void testTamperedTokenIsNotAuthenticated() {
+        JwtTokenProvider provider = newProvider(mock(UserMapper.class));
+        String token = provider.createToken(1L, "alice", 0);
+
+        assertNull(provider.authenticate(token.substring(0, token.length() - 2) + "xx"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.aidiary.service;
+
+import com.aidiary.tools.ToolResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiServiceTest {
+
+    private final DefaultToolCallResultConverter converter = new DefaultToolCallResultConverter();
+    private AiService aiService;
+
+    @BeforeEach
+    public void setUp() {
+        aiService = new AiService(null, null, null, null, null, null, null);
+    }
+
+    @Test
+    public void testDescribesDiaryResultWithSpecialCharactersInTitle() {
+        String json = converter.convert(ToolResult.ok(7L, "a title=with status=odd"), ToolResult.class);
+
+        assertEquals("I've saved your diary entry \"a title=with status=odd\".",
+                aiService.describeToolResult("append_diary", json, false));
+        assertEquals("我已经为您记录了日记：《a title=with status=odd》",
+                aiService.describeToolResult("append_diary", json, true));
+    }
+
+    @Test
+    public void testDescribesTaskUpdateAndReminder() {
+        String task = converter.convert(ToolResult.task(3L, "Report", "completed"), ToolResult.class);
+        String reminder = converter.convert(ToolResult.reminder(4L, "2026-01-01T09:00"), ToolResult.class);
+
+        assertEquals("I've updated the task \"Report\", status: completed.",
+                aiService.describeToolResult("update_task", task, false));
+        assertEquals("I've set a reminder for 2026-01-01T09:00.",
+                aiService.describeToolResult("set_reminder", reminder, false));
+    }
+
+    @Test
+    public void testDescribesErrorResult() {
+        String json = converter.convert(ToolResult.error("Task not found or access denied"), ToolResult.class);
+
+        assertEquals("I couldn't complete that: Task not found or access denied",
+                aiService.describeToolResult("update_task", json, false));
+    }
+
+    @Test
+    public void testSkipsReturnDirectGenerationsInStream() {
+        Generation text = new Generation(new AssistantMessage("Done. "));
+        Generation direct = new Generation(new AssistantMessage("{\"ok\":true,\"id\":1}"),
+                ChatGenerationMetadata.builder().finishReason(ToolExecutionResult.FINISH_REASON).build());
+
+        assertEquals("Done. ", AiService.modelText(new ChatResponse(List.of(text, direct))));
+        assertEquals("", AiService.modelText(new ChatResponse(List.of(direct))));
+    }
+}
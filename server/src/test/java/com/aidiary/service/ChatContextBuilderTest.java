@@ -0,0 +1,110 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.ChatSessionMapper;
+import com.aidiary.model.ChatMessage;
+import com.aidiary.model.ChatSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.aidiary.service.SessionContextMemoryTest.texts;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ChatContextBuilderTest {
+
+    private ChatSessionMapper chatSessionMapper;
+    private SessionContextMemory memory;
+    private ConversationSummarizer summarizer;
+    private ChatContextBuilder builder;
+
+    @BeforeEach
+    public void setUp() {
+        chatSessionMapper = mock(ChatSessionMapper.class);
+        memory = new SessionContextMemory(chatSessionMapper);
+        ReflectionTestUtils.setField(memory, "windowSize", 10);
+        ReflectionTestUtils.setField(memory, "maxSessions", 10);
+        memory.init();
+        summarizer = mock(ConversationSummarizer.class);
+        builder = new ChatContextBuilder(memory, summarizer);
+        ReflectionTestUtils.setField(builder, "tokenBudget", 250);
+    }
+
+    @Test
+    public void testEverythingFitsWithoutFolding() {
+        givenHistory(null, null, message(1L, 50), message(2L, 50));
+
+        List<Message> prompt = builder.build(1L);
+
+        assertEquals(List.of("m1", "m2"), texts(prompt));
+        verify(summarizer, never()).refreshAsync(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testBudgetKeepsNewestTurnsAndRequestsFold() {
+        givenHistory(null, null, message(1L, 100), message(2L, 100), message(3L, 100), message(4L, 100));
+
+        List<Message> prompt = builder.build(1L);
+
+        assertEquals(List.of("m3", "m4"), texts(prompt));
+        verify(summarizer).refreshAsync(1L, 3L);
+    }
+
+    @Test
+    public void testFoldIsRequestedOnceUntilItCompletes() {
+        givenHistory(null, null, message(1L, 100), message(2L, 100), message(3L, 100), message(4L, 100));
+
+        builder.build(1L);
+        builder.build(1L);
+
+        verify(summarizer, times(1)).refreshAsync(1L, 3L);
+    }
+
+    @Test
+    public void testSummaryIsPrependedAndSummarizedTurnsAreDropped() {
+        givenHistory("talked about exams", 2L, message(1L, 10), message(2L, 10), message(3L, 10));
+
+        List<Message> prompt = builder.build(1L);
+
+        assertInstanceOf(SystemMessage.class, prompt.get(0));
+        assertTrue(prompt.get(0).getText().contains("talked about exams"));
+        assertEquals(List.of("m3"), texts(prompt.subList(1, prompt.size())));
+    }
+
+    @Test
+    public void testSummaryTokensCountAgainstTheBudget() {
+        givenHistory("x".repeat(400), 0L, message(1L, 100), message(2L, 100));
+
+        List<Message> prompt = builder.build(1L);
+
+        assertEquals(List.of("m2"), texts(prompt.subList(1, prompt.size())));
+    }
+
+    @Test
+    public void testNewestTurnIsKeptEvenIfOverBudget() {
+        givenHistory(null, null, message(1L, 1000));
+
+        assertEquals(List.of("m1"), texts(builder.build(1L)));
+    }
+
+    private void givenHistory(String summary, Long summarizedUntilId, ChatMessage... messages) {
+        ChatSession session = new ChatSession();
+        session.setId(1L);
+        session.setSummary(summary);
+        session.setSummarizedUntilId(summarizedUntilId);
+        when(chatSessionMapper.getSessionById(1L)).thenReturn(session);
+        when(chatSessionMapper.getRecentMessagesBySessionId(1L, 10)).thenReturn(new ArrayList<>(List.of(messages)));
+    }
+
+    private static ChatMessage message(Long id, int tokens) {
+        ChatMessage message = SessionContextMemoryTest.message(id, id % 2 == 1 ? "user" : "assistant", "m" + id);
+        message.setTokenCount(tokens);
+        return message;
+    }
+}
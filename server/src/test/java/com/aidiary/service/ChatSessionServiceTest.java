@@ -0,0 +1,73 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.ChatSessionMapper;
+import com.aidiary.model.ChatSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ChatSessionServiceTest {
+
+    private ChatSessionMapper chatSessionMapper;
+    private ChatSessionService chatSessionService;
+
+    @BeforeEach
+    public void setUp() {
+        chatSessionMapper = mock(ChatSessionMapper.class);
+        chatSessionService = new ChatSessionService(chatSessionMapper, mock(SessionContextMemory.class));
+        ReflectionTestUtils.setField(chatSessionService, "currentSessionCacheSize", 100);
+        ReflectionTestUtils.setField(chatSessionService, "currentSessionCacheTtlMillis", 600000L);
+        chatSessionService.init();
+    }
+
+    @Test
+    public void testCurrentSessionIsLoadedOnce() {
+        when(chatSessionMapper.getLatestSessionByUserId(1L)).thenReturn(session(10L, 1L));
+
+        ChatSession first = chatSessionService.getOrCreateCurrentSession(1L);
+        ChatSession second = chatSessionService.getOrCreateCurrentSession(1L);
+
+        assertSame(first, second);
+        verify(chatSessionMapper, times(1)).getLatestSessionByUserId(1L);
+    }
+
+    @Test
+    public void testNewSessionBecomesCurrent() {
+        chatSessionService.createSession(1L, "New Chat");
+
+        chatSessionService.getOrCreateCurrentSession(1L);
+
+        verify(chatSessionMapper, never()).getLatestSessionByUserId(1L);
+    }
+
+    @Test
+    public void testCreatesSessionWhenUserHasNone() {
+        when(chatSessionMapper.getLatestSessionByUserId(1L)).thenReturn(null);
+
+        ChatSession session = chatSessionService.getOrCreateCurrentSession(1L);
+
+        assertEquals(1L, session.getUserId());
+        verify(chatSessionMapper).createSession(any(ChatSession.class));
+    }
+
+    @Test
+    public void testDeletingCurrentSessionInvalidatesCache() {
+        when(chatSessionMapper.getLatestSessionByUserId(1L)).thenReturn(session(10L, 1L), session(11L, 1L));
+        chatSessionService.getOrCreateCurrentSession(1L);
+
+        chatSessionService.deleteSession(10L);
+
+        assertEquals(11L, chatSessionService.getOrCreateCurrentSession(1L).getId());
+    }
+
+    private static ChatSession session(Long id, Long userId) {
+        ChatSession session = new ChatSession();
+        session.setId(id);
+        session.setUserId(userId);
+        return session;
+    }
+}
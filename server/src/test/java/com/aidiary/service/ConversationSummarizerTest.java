@@ -0,0 +1,97 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.ChatSessionMapper;
+import com.aidiary.model.ChatMessage;
+import com.aidiary.model.ChatSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ConversationSummarizerTest {
+
+    private ChatSessionMapper chatSessionMapper;
+    private SessionContextMemory memory;
+    private ChatModel chatModel;
+    private ConversationSummarizer summarizer;
+
+    @BeforeEach
+    public void setUp() {
+        chatSessionMapper = mock(ChatSessionMapper.class);
+        memory = mock(SessionContextMemory.class);
+        chatModel = mock(ChatModel.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        summarizer = new ConversationSummarizer(chatSessionMapper, memory, chatModel);
+        ReflectionTestUtils.setField(summarizer, "batchSize", 100);
+
+        ChatSession session = new ChatSession();
+        session.setId(1L);
+        session.setSummarizedUntilId(2L);
+        when(chatSessionMapper.getSessionById(1L)).thenReturn(session);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        summarizer.shutdown();
+    }
+
+    @Test
+    public void testFoldsMessagesIntoStoredSummary() {
+        when(chatSessionMapper.getMessagesBetween(1L, 2L, 5L, 100))
+                .thenReturn(List.of(message(3L, "I have exams"), message(4L, "Good luck")));
+        doReturn(reply(" user has exams ")).when(chatModel).call(any(Prompt.class));
+
+        summarizer.refreshAsync(1L, 5L);
+
+        verify(chatSessionMapper, timeout(2000)).updateSessionSummary(1L, "user has exams", 4L);
+        verify(memory, timeout(2000)).updateSummary(1L, "user has exams", 4L);
+    }
+
+    @Test
+    public void testEmptySummaryReleasesTheFoldRequest() {
+        when(chatSessionMapper.getMessagesBetween(1L, 2L, 5L, 100)).thenReturn(List.of(message(3L, "hi")));
+        doReturn(reply("  ")).when(chatModel).call(any(Prompt.class));
+
+        summarizer.refreshAsync(1L, 5L);
+
+        verify(memory, timeout(2000)).resetSummaryRequest(1L);
+        verify(chatSessionMapper, never()).updateSessionSummary(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    public void testModelFailureReleasesTheFoldRequest() {
+        when(chatSessionMapper.getMessagesBetween(1L, 2L, 5L, 100)).thenReturn(List.of(message(3L, "hi")));
+        doThrow(new IllegalStateException("model down")).when(chatModel).call(any(Prompt.class));
+
+        summarizer.refreshAsync(1L, 5L);
+
+        verify(memory, timeout(2000)).resetSummaryRequest(1L);
+    }
+
+    @Test
+    public void testNothingToFoldSkipsTheModel() {
+        when(chatSessionMapper.getMessagesBetween(1L, 2L, 5L, 100)).thenReturn(List.of());
+
+        summarizer.refreshAsync(1L, 5L);
+
+        verify(chatSessionMapper, timeout(2000)).getMessagesBetween(1L, 2L, 5L, 100);
+        verify(chatModel, after(200).never()).call(any(Prompt.class));
+    }
+
+    private static ChatResponse reply(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static ChatMessage message(Long id, String content) {
+        return SessionContextMemoryTest.message(id, id % 2 == 1 ? "user" : "assistant", content);
+    }
+}
@@ -0,0 +1,144 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.model.DiaryEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DiaryEnrichmentPipelineTest {
+
+    private DiaryEntryMapper diaryEntryMapper;
+    private MoodRollupService moodRollupService;
+    private ChatModel chatModel;
+    private BackgroundLlmExecutor llmExecutor;
+    private DiaryEnrichmentPipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        diaryEntryMapper = mock(DiaryEntryMapper.class);
+        moodRollupService = mock(MoodRollupService.class);
+        chatModel = mock(ChatModel.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        llmExecutor = mock(BackgroundLlmExecutor.class);
+        // runs the batch inline, as a pool thread would
+        when(llmExecutor.submit(any(), any())).thenAnswer(invocation -> {
+            try {
+                return CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get());
+            } finally {
+                invocation.<Runnable>getArgument(1).run();
+            }
+        });
+        pipeline = new DiaryEnrichmentPipeline(diaryEntryMapper, moodRollupService, chatModel, llmExecutor,
+                100, 20, 2, 1, 600_000);
+    }
+
+    @Test
+    public void testBatchIsEnrichedOnLlmExecutor() {
+        pipeline.enqueue(1L);
+        pipeline.enqueue(2L);
+        when(diaryEntryMapper.findByIds(List.of(1L, 2L))).thenReturn(List.of(entry(1L, "happy"), entry(2L, null)));
+        doReturn(reply("{\"1\":{\"score\":0.8,\"mood\":\"happy\"},\"2\":{\"score\":-3,\"mood\":\"Tired!\"}}"))
+                .when(chatModel).call(any(Prompt.class));
+        when(diaryEntryMapper.updateEnrichment(anyList())).thenReturn(2);
+
+        pipeline.drain();
+
+        verify(llmExecutor).submit(any(), any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DiaryEntry>> updates = ArgumentCaptor.forClass(List.class);
+        verify(diaryEntryMapper).updateEnrichment(updates.capture());
+        assertEquals(2, updates.getValue().size());
+        DiaryEntry second = updates.getValue().get(1);
+        assertEquals(-1f, second.getAiSentimentScore());
+        assertEquals("tired", second.getAiMood());
+        assertEquals("hash-2", second.getContentHash());
+        // both scores changed, so both days are rolled up again, labelled or not
+        verify(moodRollupService).refreshDaySafely(1L, LocalDate.of(2026, 1, 1));
+        verify(moodRollupService).refreshDaySafely(1L, LocalDate.of(2026, 1, 2));
+        verify(diaryEntryMapper, never()).markEnriched(anyList());
+    }
+
+    @Test
+    public void testRowsSkippedByHashGuardAreMarkedUnlessEdited() {
+        pipeline.enqueue(1L);
+        pipeline.enqueue(2L);
+        DiaryEntry edited = entry(2L, null);
+        edited.setContentHash("hash-2-edited");
+        when(diaryEntryMapper.findByIds(anyList()))
+                .thenReturn(List.of(entry(1L, null), entry(2L, null)))
+                .thenReturn(List.of(entry(1L, null), edited));
+        doReturn(reply("{\"1\":{\"score\":0.1,\"mood\":\"calm\"},\"2\":{\"score\":0.2,\"mood\":\"calm\"}}"))
+                .when(chatModel).call(any(Prompt.class));
+        when(diaryEntryMapper.updateEnrichment(anyList())).thenReturn(0);
+
+        pipeline.drain();
+
+        verify(diaryEntryMapper).markEnriched(List.of(1L));
+    }
+
+    @Test
+    public void testEmptyQueueSubmitsNothing() {
+        pipeline.drain();
+
+        verifyNoInteractions(llmExecutor);
+    }
+
+    @Test
+    public void testCallsAreRateLimited() {
+        pipeline.enqueue(1L);
+        when(diaryEntryMapper.findByIds(anyList())).thenReturn(List.of(entry(1L, null)));
+        doReturn(reply("{}")).when(chatModel).call(any(Prompt.class));
+
+        pipeline.drain();
+        pipeline.drain();
+
+        verify(chatModel, times(1)).call(any(Prompt.class));
+    }
+
+    @Test
+    public void testFailedBatchBacksOffAndGivesUpAfterMaxAttempts() {
+        pipeline.enqueue(1L);
+        when(diaryEntryMapper.findByIds(anyList())).thenReturn(List.of(entry(1L, null)));
+        doThrow(new IllegalStateException("model down")).when(chatModel).call(any(Prompt.class));
+
+        pipeline.drain();
+        verify(diaryEntryMapper, never()).markEnriched(anyList());
+
+        ReflectionTestUtils.setField(pipeline, "backoffUntil", 0L);
+        ReflectionTestUtils.setField(pipeline, "lastCallAt", 0L);
+        pipeline.drain();
+
+        verify(chatModel, times(2)).call(any(Prompt.class));
+        verify(diaryEntryMapper).markEnriched(List.of(1L));
+    }
+
+    private static DiaryEntry entry(Long id, String mood) {
+        DiaryEntry entry = new DiaryEntry();
+        entry.setId(id);
+        entry.setUserId(1L);
+        entry.setEntryDate(LocalDate.of(2026, 1, id.intValue()));
+        entry.setContent("entry " + id);
+        entry.setContentHash("hash-" + id);
+        entry.setMood(mood);
+        return entry;
+    }
+
+    private static ChatResponse reply(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,105 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.DailySummaryMapper;
+import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.model.DiaryEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DiaryEntryServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+
+    private DiaryEntryMapper diaryEntryMapper;
+    private DiaryEnrichmentPipeline diaryEnrichmentPipeline;
+    private TransactionTemplate transactionTemplate;
+    private DiaryEntryService service;
+
+    @BeforeEach
+    public void setUp() {
+        diaryEntryMapper = mock(DiaryEntryMapper.class);
+        diaryEnrichmentPipeline = mock(DiaryEnrichmentPipeline.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        service = new DiaryEntryService(diaryEntryMapper, mock(DailySummaryMapper.class), mock(MoodRollupService.class),
+                new SentimentScorer(), diaryEnrichmentPipeline, transactionTemplate, 30000, 100);
+        doAnswer(invocation -> {
+            invocation.<DiaryEntry>getArgument(0).setId(10L);
+            return 1;
+        }).when(diaryEntryMapper).insert(any(DiaryEntry.class));
+    }
+
+    @Test
+    public void testFirstWriteStoresDedupHashAfterReleasingExpiredOne() {
+        DiaryEntry entry = entry("Went hiking");
+
+        DiaryEntryService.WriteResult result = service.createDiaryEntryIfAbsent(entry);
+
+        assertTrue(result.created());
+        String hash = ContentFingerprint.of("Went hiking");
+        assertEquals(hash, entry.getDedupHash());
+        verify(transactionTemplate).executeWithoutResult(any());
+        InOrder inOrder = inOrder(diaryEntryMapper);
+        inOrder.verify(diaryEntryMapper).releaseDedupHash(1L, DAY, hash, 30);
+        inOrder.verify(diaryEntryMapper).insert(entry);
+    }
+
+    @Test
+    public void testDuplicateKeyReturnsTheStoredEntry() {
+        DiaryEntry stored = entry("Went hiking");
+        stored.setId(3L);
+        doThrow(new DuplicateKeyException("uk_diary_dedup")).when(diaryEntryMapper).insert(any(DiaryEntry.class));
+        when(diaryEntryMapper.findByDedupHash(1L, DAY, ContentFingerprint.of("Went hiking"))).thenReturn(stored);
+
+        DiaryEntryService.WriteResult result = service.createDiaryEntryIfAbsent(entry("went  hiking "));
+
+        assertFalse(result.created());
+        assertSame(stored, result.entry());
+        verify(diaryEnrichmentPipeline, never()).enqueue(any());
+    }
+
+    @Test
+    public void testRepeatedWriteIsAnsweredFromRecentWrites() {
+        service.createDiaryEntryIfAbsent(entry("Went hiking"));
+
+        DiaryEntryService.WriteResult result = service.createDiaryEntryIfAbsent(entry("Went hiking"));
+
+        assertFalse(result.created());
+        assertEquals(10L, result.entry().getId());
+        verify(diaryEntryMapper, times(1)).insert(any(DiaryEntry.class));
+    }
+
+    @Test
+    public void testPlainCreateNeverClaimsDedupHash() {
+        DiaryEntry entry = entry("Went hiking");
+        entry.setDedupHash("client supplied");
+
+        service.createDiaryEntry(entry);
+
+        assertNull(entry.getDedupHash());
+        verify(diaryEntryMapper, never()).releaseDedupHash(any(), any(), any(), anyLong());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    private static DiaryEntry entry(String content) {
+        DiaryEntry entry = new DiaryEntry();
+        entry.setUserId(1L);
+        entry.setEntryDate(DAY);
+        entry.setContent(content);
+        return entry;
+    }
+}
@@ -0,0 +1,120 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.DailySummaryMapper;
+import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.model.DiaryEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DiaryTitleEnricherTest {
+
+    private DiaryEntryMapper diaryEntryMapper;
+    private DailySummaryMapper dailySummaryMapper;
+    private ChatModel chatModel;
+    private BackgroundLlmExecutor llmExecutor;
+    private DiaryTitleEnricher enricher;
+
+    @BeforeEach
+    public void setUp() {
+        diaryEntryMapper = mock(DiaryEntryMapper.class);
+        dailySummaryMapper = mock(DailySummaryMapper.class);
+        chatModel = mock(ChatModel.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        llmExecutor = mock(BackgroundLlmExecutor.class);
+        enricher = new DiaryTitleEnricher(diaryEntryMapper, dailySummaryMapper, chatModel, llmExecutor);
+        ReflectionTestUtils.setField(enricher, "batchSize", 20);
+        ReflectionTestUtils.setField(enricher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(enricher, "retryDelaySeconds", 600);
+    }
+
+    @Test
+    public void testTitlesOnlyEntriesClaimedByThisRun() {
+        when(diaryEntryMapper.claimProvisionalTitles(anyString(), eq(20), eq(3), eq(600))).thenReturn(2);
+        when(diaryEntryMapper.findClaimedTitles(anyString())).thenReturn(List.of(entry(5L), entry(9L)));
+        doReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("{\"5\":\"《爬山》\",\"9\":\"\"}")))))
+                .when(chatModel).call(any(Prompt.class));
+        when(diaryEntryMapper.updateProvisionalTitle(5L, "爬山")).thenReturn(1);
+
+        enricher.enrichPendingTitles();
+
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(diaryEntryMapper).claimProvisionalTitles(claim.capture(), eq(20), eq(3), eq(600));
+        verify(diaryEntryMapper).findClaimedTitles(claim.getValue());
+        verify(diaryEntryMapper).updateProvisionalTitle(5L, "爬山");
+        verify(diaryEntryMapper, never()).updateProvisionalTitle(eq(9L), anyString());
+        verify(dailySummaryMapper).markStale(1L, LocalDate.of(2026, 1, 1));
+    }
+
+    @Test
+    public void testSkipsModelWhenNothingClaimed() {
+        when(diaryEntryMapper.claimProvisionalTitles(anyString(), anyInt(), anyInt(), anyInt())).thenReturn(0);
+
+        enricher.enrichPendingTitles();
+
+        verify(diaryEntryMapper, never()).findClaimedTitles(anyString());
+        verify(chatModel, never()).call(any(Prompt.class));
+    }
+
+    @Test
+    public void testUsesFreshClaimTokenEachRun() {
+        when(diaryEntryMapper.claimProvisionalTitles(anyString(), anyInt(), anyInt(), anyInt())).thenReturn(0);
+
+        enricher.enrichPendingTitles();
+        enricher.enrichPendingTitles();
+
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(diaryEntryMapper, times(2)).claimProvisionalTitles(claim.capture(), anyInt(), anyInt(), anyInt());
+        assertNotEquals(claim.getAllValues().get(0), claim.getAllValues().get(1));
+    }
+
+    @Test
+    public void testScheduledRunIsHandedToLlmExecutorOneAtATime() {
+        ArgumentCaptor<Runnable> onFinished = ArgumentCaptor.forClass(Runnable.class);
+        when(llmExecutor.submit(any(), onFinished.capture())).thenReturn(new CompletableFuture<>());
+
+        enricher.scheduleEnrichment();
+        enricher.scheduleEnrichment();
+
+        verify(llmExecutor, times(1)).submit(any(), any());
+        verifyNoInteractions(diaryEntryMapper);
+
+        onFinished.getValue().run();
+        enricher.scheduleEnrichment();
+        verify(llmExecutor, times(2)).submit(any(), any());
+    }
+
+    @Test
+    public void testSaturatedExecutorDefersRun() {
+        when(llmExecutor.submit(any(), any())).thenThrow(new RejectedExecutionException());
+        enricher.scheduleEnrichment();
+
+        reset(llmExecutor);
+        enricher.scheduleEnrichment();
+        verify(llmExecutor).submit(any(), any());
+    }
+
+    private static DiaryEntry entry(Long id) {
+        DiaryEntry entry = new DiaryEntry();
+        entry.setId(id);
+        entry.setUserId(1L);
+        entry.setContent("Went hiking today");
+        entry.setEntryDate(LocalDate.of(2026, 1, 1));
+        entry.setTitleProvisional(true);
+        return entry;
+    }
+}
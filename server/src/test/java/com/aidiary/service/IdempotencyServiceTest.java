@@ -0,0 +1,105 @@
+package com.aidiary.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyServiceTest {
+
+    private IdempotencyService service;
+    private AtomicInteger starts;
+    private AtomicReference<CompletableFuture<String>> running;
+    private AtomicReference<Runnable> release;
+    private Function<Runnable, CompletableFuture<String>> work;
+
+    @BeforeEach
+    public void setUp() {
+        service = new IdempotencyService(100, 60_000);
+        starts = new AtomicInteger();
+        running = new AtomicReference<>();
+        release = new AtomicReference<>();
+        work = onFinished -> {
+            starts.incrementAndGet();
+            release.set(onFinished);
+            running.set(new CompletableFuture<>());
+            return running.get();
+        };
+    }
+
+    @Test
+    public void testConcurrentRetryAttachesToInFlightRequest() throws Exception {
+        CompletableFuture<String> first = service.execute(1L, "key", "hello", work);
+        CompletableFuture<String> retry = service.execute(1L, "key", "hello", work);
+
+        assertEquals(1, starts.get());
+        running.get().complete("reply");
+        release.get().run();
+
+        assertEquals("reply", first.get());
+        assertEquals("reply", retry.get());
+    }
+
+    @Test
+    public void testCompletedRequestIsReplayed() throws Exception {
+        service.execute(1L, "key", "hello", work);
+        running.get().complete("reply");
+        release.get().run();
+
+        assertEquals("reply", service.execute(1L, "key", "hello", work).get());
+        assertEquals(1, starts.get());
+    }
+
+    @Test
+    public void testReusedKeyWithDifferentPayloadConflicts() {
+        service.execute(1L, "key", "hello", work);
+
+        assertThrows(IllegalStateException.class, () -> service.execute(1L, "key", "something else", work));
+
+        running.get().complete("reply");
+        release.get().run();
+        assertThrows(IllegalStateException.class, () -> service.execute(1L, "key", "something else", work));
+    }
+
+    @Test
+    public void testKeysAreScopedPerUser() {
+        service.execute(1L, "key", "hello", work);
+        service.execute(2L, "key", "hello", work);
+
+        assertEquals(2, starts.get());
+    }
+
+    @Test
+    public void testTimedOutRequestHoldsKeyUntilWorkStops() {
+        CompletableFuture<String> first = service.execute(1L, "key", "hello", work);
+        running.get().completeExceptionally(new TimeoutException());
+        assertTrue(first.isCompletedExceptionally());
+
+        CompletableFuture<String> retry = service.execute(1L, "key", "hello", work);
+        assertEquals(1, starts.get(), "no second pipeline while the timed-out one is still running");
+        assertTrue(retry.isCompletedExceptionally());
+
+        release.get().run();
+        service.execute(1L, "key", "hello", work);
+        assertEquals(2, starts.get());
+    }
+
+    @Test
+    public void testFastWorkIsRecordedBeforeKeyIsReleased() throws Exception {
+        Function<Runnable, CompletableFuture<String>> immediate = onFinished -> {
+            starts.incrementAndGet();
+            onFinished.run();
+            return CompletableFuture.completedFuture("reply");
+        };
+
+        assertEquals("reply", service.execute(1L, "key", "hello", immediate).get());
+        assertEquals("reply", service.execute(1L, "key", "hello", immediate).get());
+        assertEquals(1, starts.get());
+    }
+}
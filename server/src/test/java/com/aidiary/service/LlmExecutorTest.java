@@ -0,0 +1,161 @@
+package com.aidiary.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LlmExecutorTest {
+
+    private LlmExecutor llmExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        llmExecutor = new LlmExecutor();
+        ReflectionTestUtils.setField(llmExecutor, "concurrency", 1);
+        ReflectionTestUtils.setField(llmExecutor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(llmExecutor, "timeoutMillis", 200L);
+        llmExecutor.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        llmExecutor.shutdown();
+    }
+
+    @Test
+    public void testSubmitReturnsResult() throws Exception {
+        assertEquals("ok", llmExecutor.submit(() -> "ok").get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeoutInterruptsWorker() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> future = llmExecutor.submit(() -> {
+            try {
+                Thread.sleep(10_000);
+                return "late";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException(e);
+            }
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "timed-out task should be interrupted");
+        assertEquals("next", llmExecutor.submit(() -> "next").get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOnFinishedWaitsForTimedOutTaskToStop() throws Exception {
+        CountDownLatch stopping = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        CompletableFuture<String> future = llmExecutor.submit(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                // keeps running for a while after the interrupt, like a call that ignores it
+                await(stopping);
+            }
+            return "late";
+        }, finished::incrementAndGet);
+
+        assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(0, finished.get(), "task is still running");
+
+        stopping.countDown();
+        assertEquals("next", llmExecutor.submit(() -> "next").get(1, TimeUnit.SECONDS));
+        assertEquals(1, finished.get());
+    }
+
+    @Test
+    public void testOnFinishedRunsOnceForTaskThatNeverStarted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finishedOnce = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+        llmExecutor.submit(() -> {
+            // ignores the interrupt so the only pool thread stays busy past the queued task's timeout
+            while (release.getCount() > 0) {
+                await(release);
+            }
+            return "done";
+        });
+        CompletableFuture<String> queued = llmExecutor.submit(() -> "ran" + ran.incrementAndGet(), () -> {
+            finished.incrementAndGet();
+            finishedOnce.countDown();
+        });
+
+        assertThrows(ExecutionException.class, () -> queued.get(2, TimeUnit.SECONDS));
+        assertTrue(finishedOnce.await(1, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertEquals("next", llmExecutor.submit(() -> "next").get(2, TimeUnit.SECONDS));
+        assertEquals(0, ran.get());
+        assertEquals(1, finished.get());
+    }
+
+    @Test
+    public void testRecognisesItsOwnWorkerThreads() throws Exception {
+        assertFalse(llmExecutor.isLlmThread());
+        assertTrue(llmExecutor.submit(llmExecutor::isLlmThread).get(1, TimeUnit.SECONDS));
+        assertFalse(llmExecutor.isLlmThread());
+    }
+
+    @Test
+    public void testStreamPermitCountsAgainstConcurrency() throws Exception {
+        assertTrue(llmExecutor.tryAcquirePermit());
+        assertFalse(llmExecutor.tryAcquirePermit());
+
+        CompletableFuture<String> queued = llmExecutor.submit(() -> "after stream");
+        Thread.sleep(50);
+        assertFalse(queued.isDone(), "pooled task must wait while the stream holds the permit");
+
+        llmExecutor.releasePermit();
+        assertEquals("after stream", queued.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSaturatedExecutorRejects() {
+        CountDownLatch release = new CountDownLatch(1);
+        llmExecutor.submit(() -> await(release));
+        llmExecutor.submit(() -> await(release));
+
+        assertThrows(RejectedExecutionException.class, () -> llmExecutor.submit(() -> "rejected"));
+        release.countDown();
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    @Test
+    public void testSeparatePoolDoesNotTakeSharedPermits() throws Exception {
+        assertTrue(llmExecutor.tryAcquirePermit());
+        LlmExecutor background = LlmExecutor.create("llm-background-", 1, 1, 1000L);
+        try {
+            assertEquals("ok", background.submit(() -> "ok").get(1, TimeUnit.SECONDS));
+            assertFalse(llmExecutor.tryAcquirePermit());
+        } finally {
+            background.shutdown();
+            llmExecutor.releasePermit();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.LlmResponseCacheMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class LlmResponseCacheTest {
+
+    private ChatModel chatModel;
+    private LlmResponseCacheMapper llmResponseCacheMapper;
+    private LlmResponseCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        chatModel = mock(ChatModel.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        llmResponseCacheMapper = mock(LlmResponseCacheMapper.class);
+        cache = new LlmResponseCache(chatModel, llmResponseCacheMapper, 100, true);
+    }
+
+    @Test
+    public void testIdenticalPromptIsServedFromCache() {
+        doReturn(reply("happy")).when(chatModel).call(any(Prompt.class));
+
+        assertEquals("happy", cache.call("today-mood", "system", "I am Happy"));
+        assertEquals("happy", cache.call("today-mood", "system", "I am Happy"));
+
+        verify(chatModel, times(1)).call(any(Prompt.class));
+        verify(llmResponseCacheMapper).upsert(anyString(), eq("today-mood"), eq("happy"));
+    }
+
+    @Test
+    public void testPromptsDifferingOnlyInCaseOrSpacingAreNotShared() {
+        doReturn(reply("first"), reply("second")).when(chatModel).call(any(Prompt.class));
+
+        assertEquals("first", cache.call("today-mood", "system", "Mood: HAPPY"));
+        assertEquals("second", cache.call("today-mood", "system", "mood:  happy"));
+
+        verify(chatModel, times(2)).call(any(Prompt.class));
+    }
+
+    @Test
+    public void testRejectedResponseIsNotCached() {
+        doReturn(reply("Sure! Here is the JSON"), reply("{\"2026-01-01\":\"calm\"}")).when(chatModel).call(any(Prompt.class));
+
+        assertEquals("Sure! Here is the JSON", cache.call("mood-trend-batch", "system", "days", LlmResponseCache::isJsonObject));
+        assertEquals("{\"2026-01-01\":\"calm\"}", cache.call("mood-trend-batch", "system", "days", LlmResponseCache::isJsonObject));
+        assertEquals("{\"2026-01-01\":\"calm\"}", cache.call("mood-trend-batch", "system", "days", LlmResponseCache::isJsonObject));
+
+        verify(chatModel, times(2)).call(any(Prompt.class));
+        verify(llmResponseCacheMapper, times(1)).upsert(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void testJsonObjectCheckAcceptsFencedJson() {
+        assertTrue(LlmResponseCache.isJsonObject("```json\n{\"a\":\"b\"}\n```"));
+        assertFalse(LlmResponseCache.isJsonObject("[\"a\"]"));
+        assertFalse(LlmResponseCache.isJsonObject("not json"));
+    }
+
+    private static ChatResponse reply(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,123 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.mapper.MoodDailyMapper;
+import com.aidiary.model.DiaryEntry;
+import com.aidiary.model.MoodDaily;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MoodRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+
+    private DiaryEntryMapper diaryEntryMapper;
+    private MoodDailyMapper moodDailyMapper;
+    private MoodRollupService service;
+
+    @BeforeEach
+    public void setUp() {
+        diaryEntryMapper = mock(DiaryEntryMapper.class);
+        moodDailyMapper = mock(MoodDailyMapper.class);
+        service = new MoodRollupService(diaryEntryMapper, moodDailyMapper, new ObjectMapper());
+    }
+
+    @Test
+    public void testRollsUpLabelsAndSentiment() {
+        when(diaryEntryMapper.findMoodsByUserIdAndDate(1L, DAY)).thenReturn(List.of(
+                entry("Happy", null, 0.5f), entry(" happy", null, 0.7f), entry("tired", null, null)));
+
+        MoodDaily day = refresh();
+
+        assertEquals(3, day.getEntryCount());
+        assertEquals("happy", day.getDominantMood());
+        assertEquals(0.6, day.getAvgSentiment(), 1e-6);
+        assertEquals("{\"happy\":2,\"tired\":1}", day.getMoodCounts());
+    }
+
+    @Test
+    public void testUsesAiMoodOnlyWhenEveryEntryHasOne() {
+        when(diaryEntryMapper.findMoodsByUserIdAndDate(1L, DAY)).thenReturn(List.of(
+                entry(null, "calm", null), entry("", "calm", null)));
+        assertEquals("calm", refresh().getDominantMood());
+
+        reset(moodDailyMapper);
+        when(diaryEntryMapper.findMoodsByUserIdAndDate(1L, DAY)).thenReturn(List.of(
+                entry(null, "calm", null), entry(null, null, null)));
+        MoodDaily day = refresh();
+        assertNull(day.getDominantMood(), "a partly classified day still needs classification");
+        assertNull(day.getAvgSentiment());
+    }
+
+    @Test
+    public void testDayWithoutEntriesIsDeleted() {
+        when(diaryEntryMapper.findMoodsByUserIdAndDate(1L, DAY)).thenReturn(List.of());
+
+        service.refreshDay(1L, DAY);
+
+        verify(moodDailyMapper).delete(1L, DAY);
+        verify(moodDailyMapper, never()).upsert(any());
+    }
+
+    @Test
+    public void testBackfillTakesOneBatchPerRunUntilNoMissingDaysRemain() {
+        List<MoodDaily> fullPage = new ArrayList<>(Collections.nCopies(500, missing()));
+        when(moodDailyMapper.findMissingDays(500)).thenReturn(fullPage, List.of(missing()));
+        when(diaryEntryMapper.findMoodsByUserIdAndDate(1L, DAY)).thenReturn(List.of(entry("happy", null, null)));
+
+        service.backfillMissingDays();
+        verify(moodDailyMapper, times(1)).findMissingDays(500);
+        verify(moodDailyMapper, times(500)).upsert(any());
+
+        service.backfillMissingDays();
+        service.backfillMissingDays();
+
+        verify(moodDailyMapper, times(2)).findMissingDays(500);
+        verify(moodDailyMapper, times(501)).upsert(any());
+    }
+
+    @Test
+    public void testBackfillRetriesNextRunAfterFailure() {
+        when(moodDailyMapper.findMissingDays(500)).thenReturn(List.of(missing()), List.of());
+        when(diaryEntryMapper.findMoodsByUserIdAndDate(1L, DAY)).thenThrow(new IllegalStateException("db down"));
+
+        service.backfillMissingDays();
+        service.backfillMissingDays();
+        service.backfillMissingDays();
+
+        verify(moodDailyMapper, times(2)).findMissingDays(500);
+    }
+
+    private MoodDaily refresh() {
+        service.refreshDay(1L, DAY);
+        ArgumentCaptor<MoodDaily> captor = ArgumentCaptor.forClass(MoodDaily.class);
+        verify(moodDailyMapper).upsert(captor.capture());
+        return captor.getValue();
+    }
+
+    private static MoodDaily missing() {
+        MoodDaily day = new MoodDaily();
+        day.setUserId(1L);
+        day.setMoodDate(DAY);
+        return day;
+    }
+
+    private static DiaryEntry entry(String mood, String aiMood, Float sentiment) {
+        DiaryEntry entry = new DiaryEntry();
+        entry.setMood(mood);
+        entry.setAiMood(aiMood);
+        entry.setAiSentimentScore(sentiment);
+        return entry;
+    }
+}
@@ -0,0 +1,184 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.NotificationOutboxMapper;
+import com.aidiary.model.NotificationOutbox;
+import com.aidiary.notification.FakeNotificationChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationDeliveryWorkerTest {
+
+    private NotificationOutboxMapper outboxMapper;
+    private FakeNotificationChannel fakeChannel;
+    private NotificationDeliveryWorker worker;
+
+    @BeforeEach
+    public void setUp() {
+        outboxMapper = mock(NotificationOutboxMapper.class);
+        fakeChannel = new FakeNotificationChannel();
+        ReflectionTestUtils.setField(fakeChannel, "latencyMs", 0L);
+        ReflectionTestUtils.setField(fakeChannel, "failureRate", 0.0);
+        worker = new NotificationDeliveryWorker(outboxMapper, List.of(fakeChannel), new InstanceIdentity("node-1"));
+        ReflectionTestUtils.setField(worker, "concurrency", 4);
+        ReflectionTestUtils.setField(worker, "batchSize", 10);
+        ReflectionTestUtils.setField(worker, "leaseSeconds", 120);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "initialBackoffMillis", 30_000L);
+        ReflectionTestUtils.setField(worker, "maxBackoffMillis", 3_600_000L);
+        worker.init();
+        when(outboxMapper.claimDue(eq("node-1"), any(), eq(120), eq(10))).thenReturn(1);
+        when(outboxMapper.renewClaim(anyLong(), eq("node-1"), any(), eq(120))).thenReturn(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    public void testDeliveredRowsAreMarkedAfterRenewingTheirLease() {
+        claim(notification(1L, FakeNotificationChannel.NAME, 0), notification(2L, FakeNotificationChannel.NAME, 0));
+
+        worker.dispatchDue().join();
+
+        verify(outboxMapper).renewClaim(eq(1L), eq("node-1"), any(), eq(120));
+        verify(outboxMapper).renewClaim(eq(2L), eq("node-1"), any(), eq(120));
+        verify(outboxMapper).markDelivered(List.of(1L), "node-1");
+        verify(outboxMapper).markDelivered(List.of(2L), "node-1");
+        verify(outboxMapper, never()).markFailed(anyLong(), anyString(), anyString(), any(), anyString());
+    }
+
+    @Test
+    public void testRowReclaimedElsewhereIsNotSent() {
+        claim(notification(1L, FakeNotificationChannel.NAME, 0));
+        when(outboxMapper.renewClaim(eq(1L), eq("node-1"), any(), eq(120))).thenReturn(0);
+
+        worker.dispatchDue().join();
+
+        verify(outboxMapper, never()).markDelivered(anyList(), anyString());
+        verify(outboxMapper, never()).markFailed(anyLong(), anyString(), anyString(), any(), anyString());
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetriedWithExponentialBackoff() {
+        ReflectionTestUtils.setField(fakeChannel, "failureRate", 1.0);
+        claim(notification(1L, FakeNotificationChannel.NAME, 1));
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.dispatchDue().join();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxMapper).markFailed(eq(1L), eq("node-1"), eq(NotificationOutbox.STATUS_PENDING),
+                nextAttempt.capture(), eq("Simulated delivery failure"));
+        long backoff = Duration.between(before, nextAttempt.getValue()).toMillis();
+        assertTrue(backoff >= 60_000 && backoff < 61_000, "second attempt waits twice the initial backoff: " + backoff);
+        verify(outboxMapper, never()).markDelivered(anyList(), anyString());
+    }
+
+    @Test
+    public void testBackoffIsCappedAtMaximum() {
+        ReflectionTestUtils.setField(fakeChannel, "failureRate", 1.0);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 50);
+        claim(notification(1L, FakeNotificationChannel.NAME, 30));
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.dispatchDue().join();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxMapper).markFailed(eq(1L), eq("node-1"), eq(NotificationOutbox.STATUS_PENDING),
+                nextAttempt.capture(), anyString());
+        long backoff = Duration.between(before, nextAttempt.getValue()).toMillis();
+        assertTrue(backoff >= 3_600_000 && backoff < 3_601_000, "backoff capped: " + backoff);
+    }
+
+    @Test
+    public void testLastAttemptMovesRowToDeadLetter() {
+        ReflectionTestUtils.setField(fakeChannel, "failureRate", 1.0);
+        claim(notification(1L, FakeNotificationChannel.NAME, 2));
+
+        worker.dispatchDue().join();
+
+        verify(outboxMapper).markFailed(eq(1L), eq("node-1"), eq(NotificationOutbox.STATUS_DEAD), any(), anyString());
+    }
+
+    @Test
+    public void testUnknownChannelIsDeadLetteredImmediately() {
+        claim(notification(1L, "carrier_pigeon", 0));
+
+        worker.dispatchDue().join();
+
+        verify(outboxMapper).markFailed(eq(1L), eq("node-1"), eq(NotificationOutbox.STATUS_DEAD), any(),
+                eq("Unknown notification channel: carrier_pigeon"));
+    }
+
+    @Test
+    public void testNothingClaimedSkipsLookup() {
+        when(outboxMapper.claimDue(eq("node-1"), any(), eq(120), eq(10))).thenReturn(0);
+
+        worker.dispatchDue().join();
+
+        verify(outboxMapper, never()).findClaimedBy(anyString(), any());
+    }
+
+    @Test
+    public void testRowStillInFlightIsNotHandedOffAgain() {
+        ReflectionTestUtils.setField(fakeChannel, "latencyMs", 300L);
+        claim(notification(1L, FakeNotificationChannel.NAME, 0));
+
+        CompletableFuture<Void> first = worker.dispatchDue();
+        worker.dispatchDue().join();
+        first.join();
+
+        verify(outboxMapper, times(1)).renewClaim(eq(1L), eq("node-1"), any(), eq(120));
+        verify(outboxMapper, times(1)).markDelivered(List.of(1L), "node-1");
+    }
+
+    @Test
+    public void testSaturatedPoolReleasesRowsInsteadOfRunningThemOnTheScheduler() {
+        worker.shutdown();
+        ReflectionTestUtils.setField(worker, "concurrency", 1);
+        ReflectionTestUtils.setField(worker, "batchSize", 1);
+        worker.init();
+        ReflectionTestUtils.setField(fakeChannel, "latencyMs", 200L);
+        when(outboxMapper.claimDue(eq("node-1"), any(), eq(120), eq(1))).thenReturn(1);
+        claim(notification(1L, FakeNotificationChannel.NAME, 0), notification(2L, FakeNotificationChannel.NAME, 0),
+                notification(3L, FakeNotificationChannel.NAME, 0));
+
+        long started = System.nanoTime();
+        CompletableFuture<Void> batch = worker.dispatchDue();
+        assertTrue(System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(150), "dispatch must not wait on sends");
+        batch.join();
+
+        verify(outboxMapper).releaseClaim(3L, "node-1");
+        verify(outboxMapper).markDelivered(List.of(1L), "node-1");
+        verify(outboxMapper).markDelivered(List.of(2L), "node-1");
+    }
+
+    private void claim(NotificationOutbox... notifications) {
+        when(outboxMapper.findClaimedBy(eq("node-1"), any())).thenReturn(List.of(notifications));
+    }
+
+    private static NotificationOutbox notification(Long id, String channel, int attempts) {
+        NotificationOutbox notification = new NotificationOutbox();
+        notification.setId(id);
+        notification.setUserId(7L);
+        notification.setChannel(channel);
+        notification.setPayload("{\"reminderId\":" + id + "}");
+        notification.setStatus(NotificationOutbox.STATUS_PENDING);
+        notification.setAttempts(attempts);
+        return notification;
+    }
+}
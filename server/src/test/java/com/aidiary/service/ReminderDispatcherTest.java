@@ -0,0 +1,137 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.NotificationOutboxMapper;
+import com.aidiary.mapper.ReminderMapper;
+import com.aidiary.model.NotificationOutbox;
+import com.aidiary.model.Reminder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReminderDispatcherTest {
+
+    private ReminderMapper reminderMapper;
+    private NotificationOutboxMapper outboxMapper;
+    private TransactionTemplate transactionTemplate;
+    private ReminderDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        reminderMapper = mock(ReminderMapper.class);
+        outboxMapper = mock(NotificationOutboxMapper.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        dispatcher = new ReminderDispatcher(reminderMapper, outboxMapper, transactionTemplate, new ObjectMapper(),
+                new InstanceIdentity("node-1"));
+        ReflectionTestUtils.setField(dispatcher, "chunkSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 120);
+        ReflectionTestUtils.setField(dispatcher, "claimBatchSize", 1000);
+        ReflectionTestUtils.setField(dispatcher, "channels", List.of("in_app"));
+    }
+
+    @Test
+    public void testEachChunkIsMarkedInItsOwnTransaction() {
+        List<Reminder> due = reminders(1, 250);
+        when(reminderMapper.findOwned(anyList(), eq("node-1"))).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).stream().map(id -> reminder(id)).toList());
+
+        dispatcher.dispatch(due);
+
+        verify(transactionTemplate, times(3)).execute(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> marked = ArgumentCaptor.forClass(List.class);
+        verify(reminderMapper, times(3)).markAsSent(marked.capture(), eq("node-1"));
+        assertEquals(List.of(100, 100, 50), marked.getAllValues().stream().map(List::size).toList());
+        assertEquals(1L, marked.getAllValues().get(0).get(0));
+        assertEquals(250L, marked.getAllValues().get(2).get(49));
+    }
+
+    @Test
+    public void testOnlyRemindersStillOwnedAreQueuedAndMarked() {
+        when(reminderMapper.findOwned(List.of(1L, 2L, 3L), "node-1")).thenReturn(List.of(reminder(1L), reminder(3L)));
+        ReflectionTestUtils.setField(dispatcher, "channels", List.of("in_app", " email"));
+
+        dispatcher.dispatch(reminders(1, 3));
+
+        verify(reminderMapper).markAsSent(List.of(1L, 3L), "node-1");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationOutbox>> queued = ArgumentCaptor.forClass(List.class);
+        verify(outboxMapper).insertAll(queued.capture());
+        assertEquals(List.of("1:in_app", "1:email", "3:in_app", "3:email"), queued.getValue().stream()
+                .map(n -> n.getReminderId() + ":" + n.getChannel()).toList());
+        assertTrue(queued.getValue().get(0).getPayload().contains("\"reminderId\":1"));
+    }
+
+    @Test
+    public void testChunkOwnedByAnotherReplicaIsSkipped() {
+        when(reminderMapper.findOwned(anyList(), eq("node-1"))).thenReturn(List.of());
+
+        dispatcher.dispatch(reminders(1, 3));
+
+        verify(outboxMapper, never()).insertAll(anyList());
+        verify(reminderMapper, never()).markAsSent(anyList(), anyString());
+    }
+
+    @Test
+    public void testFailedChunkDoesNotStopLaterChunks() {
+        when(reminderMapper.findOwned(anyList(), eq("node-1")))
+                .thenThrow(new IllegalStateException("deadlock"))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream().map(id -> reminder(id)).toList());
+
+        dispatcher.dispatch(reminders(1, 150));
+
+        verify(reminderMapper, times(1)).markAsSent(argThat(ids -> ids.size() == 50 && ids.get(0) == 101L), eq("node-1"));
+    }
+
+    @Test
+    public void testClaimUpcomingTakesOneBatchPerPass() {
+        ReflectionTestUtils.setField(dispatcher, "claimBatchSize", 2);
+        when(reminderMapper.claimUpcoming(eq("node-1"), any(), any(), eq(120), eq(2))).thenReturn(2);
+        when(reminderMapper.findClaimedBy(eq("node-1"), any())).thenReturn(reminders(1, 2));
+
+        List<Reminder> claimed = dispatcher.claimUpcoming(LocalDateTime.now().plusMinutes(10));
+
+        verify(reminderMapper, times(1)).claimUpcoming(eq("node-1"), any(), any(), eq(120), eq(2));
+        assertEquals(2, claimed.size());
+    }
+
+    @Test
+    public void testReleaseClaimsOnShutdown() {
+        when(reminderMapper.releaseClaims("node-1")).thenThrow(new IllegalStateException("pool closed"));
+
+        assertDoesNotThrow(() -> dispatcher.releaseClaims());
+        verify(reminderMapper).releaseClaims("node-1");
+    }
+
+    @Test
+    public void testDefaultInstanceIdIsStableAcrossRestarts() {
+        assertEquals(new InstanceIdentity("").getId(), new InstanceIdentity(null).getId());
+        assertEquals("node-1", new InstanceIdentity("node-1").getId());
+    }
+
+    private static List<Reminder> reminders(long from, long to) {
+        return new ArrayList<>(LongStream.rangeClosed(from, to).mapToObj(ReminderDispatcherTest::reminder).toList());
+    }
+
+    private static Reminder reminder(long id) {
+        Reminder reminder = new Reminder();
+        reminder.setId(id);
+        reminder.setUserId(7L);
+        reminder.setReminderTime(LocalDateTime.of(2026, 1, 1, 9, 0));
+        return reminder;
+    }
+}
@@ -0,0 +1,87 @@
+package com.aidiary.service;
+
+import com.aidiary.model.Reminder;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Heap cost per queued reminder and firing lateness for N reminders spread over a few seconds.
+// mvn test -Dtest=ReminderSchedulerBenchmark -Dreminders.benchmark.count=1000000
+public class ReminderSchedulerBenchmark {
+
+    @Test
+    public void scheduleAndFire() throws Exception {
+        int count = Integer.getInteger("reminders.benchmark.count", 100_000);
+        long spreadMillis = 3_000;
+
+        long[] latenessMicros = new long[count];
+        AtomicInteger firedCount = new AtomicInteger();
+        CountDownLatch allFired = new CountDownLatch(1);
+        ReminderDispatcher dispatcher = mock(ReminderDispatcher.class, withSettings().stubOnly());
+        List<Reminder> reminders = new ArrayList<>(count);
+        when(dispatcher.claimUpcoming(any())).thenReturn(reminders);
+        doAnswer(invocation -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Reminder reminder : invocation.<List<Reminder>>getArgument(0)) {
+                int n = firedCount.getAndIncrement();
+                latenessMicros[n] = Duration.between(reminder.getReminderTime(), now).toNanos() / 1_000;
+                if (n == count - 1) {
+                    allFired.countDown();
+                }
+            }
+            return null;
+        }).when(dispatcher).dispatch(anyList());
+
+        ReminderScheduler scheduler = new ReminderScheduler(dispatcher);
+        ReflectionTestUtils.setField(scheduler, "horizonMillis", 600_000L);
+
+        LocalDateTime base = LocalDateTime.now().plusSeconds(5);
+        for (int i = 0; i < count; i++) {
+            reminders.add(ReminderSchedulerTest.reminder(i + 1L,
+                    base.plusNanos(TimeUnit.MILLISECONDS.toNanos(i * spreadMillis / count))));
+        }
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        scheduler.reconcile();
+        long loadNanos = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+        System.out.printf("queued %d reminders in %d ms, %.0f bytes per reminder%n",
+                count, TimeUnit.NANOSECONDS.toMillis(loadNanos), (double) (heapAfter - heapBefore) / count);
+
+        scheduler.start();
+        try {
+            if (!allFired.await(spreadMillis + 60_000, TimeUnit.MILLISECONDS)) {
+                System.out.printf("only %d of %d reminders fired%n", firedCount.get(), count);
+                return;
+            }
+        } finally {
+            scheduler.stop();
+        }
+
+        Arrays.sort(latenessMicros);
+        System.out.printf("lateness p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                latenessMicros[count / 2] / 1000.0, latenessMicros[(int) (count * 0.99)] / 1000.0,
+                latenessMicros[count - 1] / 1000.0);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,114 @@
+package com.aidiary.service;
+
+import com.aidiary.model.Reminder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReminderSchedulerTest {
+
+    private static final int COUNT = 40;
+
+    private ReminderDispatcher reminderDispatcher;
+    private ReminderScheduler scheduler;
+    private final List<Fired> fired = Collections.synchronizedList(new ArrayList<>());
+    private CountDownLatch allFired;
+
+    private record Fired(Reminder reminder, LocalDateTime at) {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        reminderDispatcher = mock(ReminderDispatcher.class);
+        when(reminderDispatcher.claim(any())).thenReturn(true);
+        allFired = new CountDownLatch(COUNT);
+        doAnswer(invocation -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Reminder reminder : invocation.<List<Reminder>>getArgument(0)) {
+                fired.add(new Fired(reminder, now));
+                allFired.countDown();
+            }
+            return null;
+        }).when(reminderDispatcher).dispatch(anyList());
+
+        scheduler = new ReminderScheduler(reminderDispatcher);
+        ReflectionTestUtils.setField(scheduler, "horizonMillis", 60_000L);
+        scheduler.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    public void testFiresInReminderTimeOrderWithLowLateness() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(200));
+        // scheduled out of order: 0, 17, 34, 11, ... spread over 40 slots 10 ms apart
+        for (int i = 0; i < COUNT; i++) {
+            int slot = (i * 17) % COUNT;
+            scheduler.schedule(reminder(i + 1L, base.plusNanos(TimeUnit.MILLISECONDS.toNanos(slot * 10L))));
+        }
+
+        assertTrue(allFired.await(5, TimeUnit.SECONDS), "all reminders should fire");
+
+        List<Fired> order = new ArrayList<>(fired);
+        List<Fired> byTime = new ArrayList<>(order);
+        byTime.sort(Comparator.comparing(f -> f.reminder().getReminderTime()));
+        assertEquals(byTime.stream().map(f -> f.reminder().getId()).toList(),
+                order.stream().map(f -> f.reminder().getId()).toList());
+        for (Fired f : order) {
+            long latenessMillis = Duration.between(f.reminder().getReminderTime(), f.at()).toMillis();
+            // delays are computed on the millisecond wall clock
+            assertTrue(latenessMillis >= -1, "fired early: " + latenessMillis + "ms");
+            assertTrue(latenessMillis < 100, "fired " + latenessMillis + "ms late");
+        }
+    }
+
+    @Test
+    public void testCancelledReminderDoesNotFire() throws Exception {
+        scheduler.schedule(reminder(1L, LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(100))));
+        scheduler.cancel(1L);
+
+        Thread.sleep(300);
+        verify(reminderDispatcher, never()).dispatch(anyList());
+    }
+
+    @Test
+    public void testReminderBeyondHorizonIsLeftForReconcile() {
+        scheduler.schedule(reminder(1L, LocalDateTime.now().plusHours(1)));
+
+        verify(reminderDispatcher, never()).claim(any());
+    }
+
+    @Test
+    public void testReminderClaimedElsewhereIsNotQueued() throws Exception {
+        when(reminderDispatcher.claim(any())).thenReturn(false);
+        scheduler.schedule(reminder(1L, LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(50))));
+
+        Thread.sleep(200);
+        verify(reminderDispatcher, never()).dispatch(anyList());
+    }
+
+    static Reminder reminder(Long id, LocalDateTime time) {
+        Reminder reminder = new Reminder();
+        reminder.setId(id);
+        reminder.setUserId(1L);
+        reminder.setReminderTime(time);
+        return reminder;
+    }
+}
@@ -0,0 +1,61 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.NotificationOutboxMapper;
+import com.aidiary.mapper.ReminderMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReminderServiceTest {
+
+    private ReminderMapper reminderMapper;
+    private ReminderScheduler reminderScheduler;
+    private ReminderService reminderService;
+
+    @BeforeEach
+    public void setUp() {
+        reminderMapper = mock(ReminderMapper.class);
+        reminderScheduler = mock(ReminderScheduler.class);
+        reminderService = new ReminderService(reminderMapper, reminderScheduler, mock(NotificationOutboxMapper.class));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void testDeleteCancelsOnlyAfterCommit() {
+        when(reminderMapper.delete(5L)).thenReturn(1);
+
+        assertTrue(reminderService.deleteReminder(5L));
+        verify(reminderScheduler, never()).cancel(5L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(reminderScheduler).cancel(5L);
+    }
+
+    @Test
+    public void testRolledBackDeleteKeepsReminderScheduled() {
+        when(reminderMapper.delete(5L)).thenReturn(1);
+
+        reminderService.deleteReminder(5L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(reminderScheduler, never()).cancel(any());
+    }
+
+    @Test
+    public void testDeletingMissingReminderRegistersNothing() {
+        assertFalse(reminderService.deleteReminder(5L));
+
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+}
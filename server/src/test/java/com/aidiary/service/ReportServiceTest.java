@@ -0,0 +1,203 @@
+package com.aidiary.service;
+
+import com.aidiary.dto.DailySummaryResponse;
+import com.aidiary.mapper.DailySummaryMapper;
+import com.aidiary.mapper.DiaryEntryMapper;
+import com.aidiary.mapper.MoodDailyMapper;
+import com.aidiary.mapper.TaskMapper;
+import com.aidiary.model.DailySummary;
+import com.aidiary.model.DiaryEntry;
+import com.aidiary.model.MoodDaily;
+import com.aidiary.model.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+
+    private TaskMapper taskMapper;
+    private DiaryEntryMapper diaryEntryMapper;
+    private DailySummaryMapper dailySummaryMapper;
+    private LlmResponseCache llmResponseCache;
+    private LlmExecutor llmExecutor;
+    private MoodDailyMapper moodDailyMapper;
+    private MoodRollupService moodRollupService;
+    private ReportService reportService;
+
+    @BeforeEach
+    public void setUp() {
+        taskMapper = mock(TaskMapper.class);
+        diaryEntryMapper = mock(DiaryEntryMapper.class);
+        dailySummaryMapper = mock(DailySummaryMapper.class);
+        llmResponseCache = mock(LlmResponseCache.class);
+        moodDailyMapper = mock(MoodDailyMapper.class);
+        moodRollupService = mock(MoodRollupService.class);
+        ChatModel chatModel = mock(ChatModel.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        doThrow(new IllegalStateException("model down")).when(chatModel).call(any(Prompt.class));
+        llmExecutor = mock(LlmExecutor.class);
+
+        DailySummary placeholder = new DailySummary();
+        placeholder.setVersion(0);
+        when(dailySummaryMapper.find(1L, DAY)).thenReturn(null, placeholder);
+        when(taskMapper.findByUserIdAndDate(1L, DAY)).thenReturn(List.of());
+        DiaryEntry entry = new DiaryEntry();
+        entry.setId(1L);
+        entry.setContent("Long day");
+        entry.setMood("tired");
+        when(diaryEntryMapper.findByUserIdAndDateRange(1L, DAY, DAY)).thenReturn(List.of(entry));
+
+        reportService = new ReportService(taskMapper, diaryEntryMapper, chatModel, llmResponseCache,
+                llmExecutor, dailySummaryMapper, moodDailyMapper, moodRollupService,
+                new SentimentScorer(), new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(reportService, "moodBatchDays", 2);
+        ReflectionTestUtils.setField(reportService, "lexiconConfidenceThreshold", 0.7);
+    }
+
+    @Test
+    public void testFallbackRunsInlineOnLlmThread() {
+        when(llmExecutor.isLlmThread()).thenReturn(true);
+
+        DailySummaryResponse response = reportService.getDailySummary(1L, DAY);
+
+        assertNotNull(response.getAiSuggestion());
+        verify(llmExecutor, never()).submit(any());
+    }
+
+    @Test
+    public void testFallbackUsesPoolFromRequestThread() {
+        when(llmExecutor.isLlmThread()).thenReturn(false);
+        when(llmExecutor.submit(any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<String>>getArgument(0).get()));
+
+        DailySummaryResponse response = reportService.getDailySummary(1L, DAY);
+
+        assertNotNull(response.getAiSuggestion());
+        verify(llmExecutor).submit(any());
+    }
+
+    @Test
+    public void testStaleSummaryServesCurrentListsWithStaleAiText() {
+        LocalDate day = LocalDate.of(2026, 3, 1);
+        DailySummary stored = new DailySummary();
+        stored.setVersion(1);
+        stored.setStale(true);
+        stored.setSummaryJson("{\"date\":\"2026-03-01\",\"tasksCompleted\":0,\"tasksPending\":1,"
+                + "\"aiSuggestion\":\"Keep going\",\"moodAnalysis\":\"Calm\",\"tasks\":[],\"entries\":[]}");
+        when(dailySummaryMapper.find(1L, day)).thenReturn(stored);
+        Task done = new Task();
+        done.setId(5L);
+        done.setStatus("completed");
+        when(taskMapper.findByUserIdAndDate(1L, day)).thenReturn(List.of(done));
+        DiaryEntry written = entry(51L, day);
+        when(diaryEntryMapper.findByUserIdAndDateRange(1L, day, day)).thenReturn(List.of(written));
+        when(llmExecutor.submit(any())).thenReturn(new CompletableFuture<>());
+
+        DailySummaryResponse response = reportService.getDailySummary(1L, day);
+
+        assertEquals("Keep going", response.getAiSuggestion());
+        assertEquals(1, response.getTasksCompleted());
+        assertEquals(0, response.getTasksPending());
+        assertEquals(List.of(done), response.getTasks());
+        assertEquals(List.of(written), response.getEntries());
+        verify(llmExecutor).submit(any());
+    }
+
+    @Test
+    public void testUnlabelledDaysAreClassifiedInBatches() {
+        LocalDate first = LocalDate.of(2026, 2, 1);
+        List<LocalDate> dates = List.of(first, first.plusDays(1), first.plusDays(2));
+        when(moodDailyMapper.findByUserIdAndDateRange(1L, first, first.plusDays(2)))
+                .thenReturn(dates.stream().map(ReportServiceTest::unclassifiedDay).toList());
+        when(diaryEntryMapper.findByUserIdAndDateRange(1L, first, first.plusDays(2)))
+                .thenReturn(List.of(entry(11L, first), entry(12L, first.plusDays(1)), entry(13L, first.plusDays(2))));
+        when(llmResponseCache.call(eq("mood-trend-batch"), anyString(), anyString(), any()))
+                .thenReturn("{\"2026-02-01\":\"calm\",\"2026-02-02\":\"tired\",\"2026-02-03\":\"calm\"}");
+
+        String trend = reportService.getMoodTrend(1L, first, first.plusDays(2));
+
+        verify(llmResponseCache, times(2)).call(eq("mood-trend-batch"), anyString(), anyString(), any());
+        verify(diaryEntryMapper).updateAiMood(argThat(entries -> entries.size() == 1 && entries.get(0).getId() == 11L), eq("calm"));
+        verify(diaryEntryMapper).updateAiMood(argThat(entries -> entries.size() == 1 && entries.get(0).getId() == 12L), eq("tired"));
+        verify(diaryEntryMapper).updateAiMood(argThat(entries -> entries.size() == 1 && entries.get(0).getId() == 13L), eq("calm"));
+        verify(moodRollupService, times(3)).refreshDaySafely(eq(1L), any());
+        assertTrue(trend.contains("\"date\":\"2026-02-02\",\"mood\":\"tired\""), trend);
+    }
+
+    @Test
+    public void testConfidentLexiconDaysSkipTheModel() {
+        LocalDate day = LocalDate.of(2026, 2, 1);
+        when(moodDailyMapper.findByUserIdAndDateRange(1L, day, day)).thenReturn(List.of(unclassifiedDay(day)));
+        DiaryEntry happy = entry(21L, day);
+        happy.setContent("A happy day, glad and cheerful, we had fun");
+        when(diaryEntryMapper.findByUserIdAndDateRange(1L, day, day)).thenReturn(List.of(happy));
+
+        reportService.getMoodTrend(1L, day, day);
+
+        verifyNoInteractions(llmResponseCache);
+        verify(diaryEntryMapper).updateAiMood(List.of(happy), "happy");
+    }
+
+    @Test
+    public void testTodayMoodReadsEnrichedRowsWithoutTheModel() {
+        LocalDate today = LocalDate.now();
+        DiaryEntry labelled = entry(31L, today);
+        labelled.setMood("tired");
+        labelled.setAiEnrichedAt(LocalDateTime.now());
+        DiaryEntry first = entry(32L, today);
+        first.setAiMood("calm");
+        first.setAiEnrichedAt(LocalDateTime.now());
+        DiaryEntry second = entry(33L, today);
+        second.setAiMood("calm");
+        second.setAiEnrichedAt(LocalDateTime.now());
+        when(diaryEntryMapper.findByUserIdAndDateRange(1L, today, today)).thenReturn(List.of(labelled, first, second));
+
+        assertEquals("Calm", reportService.getTodayMoodSummary(1L));
+        verifyNoInteractions(llmResponseCache);
+    }
+
+    @Test
+    public void testTodayMoodAsksTheModelWhileRowsAreUnenriched() {
+        LocalDate today = LocalDate.now();
+        DiaryEntry tired = entry(41L, today);
+        tired.setMood("tired");
+        DiaryEntry calm = entry(42L, today);
+        calm.setMood("calm");
+        when(diaryEntryMapper.findByUserIdAndDateRange(1L, today, today)).thenReturn(List.of(tired, calm));
+        when(llmResponseCache.call(eq("today-mood"), anyString(), anyString(), any())).thenReturn("calm");
+
+        assertEquals("Calm", reportService.getTodayMoodSummary(1L));
+        verify(llmResponseCache).call(eq("today-mood"), anyString(), anyString(), any());
+    }
+
+    private static MoodDaily unclassifiedDay(LocalDate date) {
+        MoodDaily day = new MoodDaily();
+        day.setUserId(1L);
+        day.setMoodDate(date);
+        day.setEntryCount(1);
+        return day;
+    }
+
+    private static DiaryEntry entry(Long id, LocalDate date) {
+        DiaryEntry entry = new DiaryEntry();
+        entry.setId(id);
+        entry.setUserId(1L);
+        entry.setEntryDate(date);
+        entry.setContent("Went to the store and came back");
+        return entry;
+    }
+}
@@ -0,0 +1,26 @@
+package com.aidiary.service;
+
+import com.aidiary.support.Benchmarks;
+import org.junit.jupiter.api.Test;
+
+// Per-call cost of the lexicon scorer on diary-sized English and Chinese text.
+public class SentimentScorerBenchmark {
+
+    private static final String ENGLISH = "Woke up early and went for a run by the river. The weather was really nice and I felt calm. "
+            + "Work was busy though, two deadlines and a meeting that ran late, so I was a bit stressed by the afternoon. "
+            + "Called mom in the evening, she was happy to hear from me. Not a perfect day but a productive one, "
+            + "and I'm grateful I got to cook dinner and relax before bed.";
+
+    private static final String CHINESE = "今天早上起得很早，去河边跑了步，天气很好，心情也很平静。上午的工作比较顺利，下午开了一个很长的会，"
+            + "有两个截止日期压在一起，感觉压力有点大，也有点累。晚上给妈妈打了电话，她很开心。虽然不是完美的一天，"
+            + "但还算充实，睡前看了会儿书，放松了一下。希望明天不要那么忙，可以早点下班和朋友一起吃饭。今天也要谢谢自己的坚持。"
+            + "周末打算去爬山，期待一下。";
+
+    @Test
+    public void scoreDiaryEntries() {
+        SentimentScorer scorer = new SentimentScorer();
+        System.out.printf("english %d chars, chinese %d chars%n", ENGLISH.length(), CHINESE.length());
+        Benchmarks.measure("score english entry", 5, 10, 20_000, () -> scorer.score(ENGLISH));
+        Benchmarks.measure("score chinese entry", 5, 10, 20_000, () -> scorer.score(CHINESE));
+    }
+}
@@ -0,0 +1,76 @@
+package com.aidiary.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SentimentScorerTest {
+
+    private final SentimentScorer scorer = new SentimentScorer();
+
+    @Test
+    public void testEnglishPositiveAndNegative() {
+        SentimentScorer.Result happy = scorer.score("Had a great day, we enjoyed the picnic.");
+        assertTrue(happy.score() > 0);
+        assertEquals("happy", happy.mood());
+
+        SentimentScorer.Result anxious = scorer.score("I'm worried and nervous about tomorrow.");
+        assertTrue(anxious.score() < 0);
+        assertEquals("anxious", anxious.mood());
+    }
+
+    @Test
+    public void testChinese() {
+        SentimentScorer.Result happy = scorer.score("今天和朋友去爬山，很开心");
+        assertTrue(happy.score() > 0);
+        assertEquals("happy", happy.mood());
+
+        SentimentScorer.Result sad = scorer.score("考试没考好，有点难过");
+        assertTrue(sad.score() < 0);
+        assertEquals("sad", sad.mood());
+    }
+
+    @Test
+    public void testNegationFlipsPolarity() {
+        assertTrue(scorer.score("I am not happy").score() < 0);
+        assertTrue(scorer.score("我不开心").score() < 0);
+        // "不错" is a term of its own, not a negated "错"
+        assertTrue(scorer.score("今天不错").score() > 0);
+        // negation does not reach past the end of the clause
+        assertTrue(scorer.score("Not today. Happy now").score() > 0);
+    }
+
+    @Test
+    public void testIntensifierStrengthensTerm() {
+        assertTrue(scorer.score("very happy").score() > scorer.score("happy").score());
+        assertTrue(scorer.score("非常难过").score() < scorer.score("难过").score());
+    }
+
+    @Test
+    public void testScoreStaysWithinUnitRange() {
+        String effusive = "happy ".repeat(200);
+        double score = scorer.score(effusive).score();
+        assertTrue(score > 0.99 && score <= 1.0);
+        assertTrue(scorer.score("awful ".repeat(200)).score() >= -1.0);
+    }
+
+    @Test
+    public void testConfidenceGrowsWithAgreeingHits() {
+        double one = scorer.score("happy").confidence();
+        double three = scorer.score("happy, glad and cheerful").confidence();
+        double mixed = scorer.score("happy but tired and sad").confidence();
+
+        assertEquals(1.0 / 3, one, 1e-9);
+        assertEquals(1.0, three, 1e-9);
+        assertTrue(mixed < three);
+    }
+
+    @Test
+    public void testTextWithoutTermsIsNeutral() {
+        assertEquals(new SentimentScorer.Result(0, "neutral", 0), scorer.score(null));
+        assertEquals(new SentimentScorer.Result(0, "neutral", 0), scorer.score("   "));
+        SentimentScorer.Result plain = scorer.score("Went to the store");
+        assertEquals("neutral", plain.mood());
+        assertEquals(0, plain.confidence());
+    }
+}
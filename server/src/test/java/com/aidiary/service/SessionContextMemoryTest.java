@@ -0,0 +1,105 @@
+package com.aidiary.service;
+
+import com.aidiary.mapper.ChatSessionMapper;
+import com.aidiary.model.ChatMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SessionContextMemoryTest {
+
+    private ChatSessionMapper chatSessionMapper;
+    private SessionContextMemory memory;
+
+    @BeforeEach
+    public void setUp() {
+        chatSessionMapper = mock(ChatSessionMapper.class);
+        memory = new SessionContextMemory(chatSessionMapper);
+        ReflectionTestUtils.setField(memory, "windowSize", 3);
+        ReflectionTestUtils.setField(memory, "maxSessions", 10);
+        memory.init();
+    }
+
+    @Test
+    public void testWindowIsLoadedOnceAndThenAppended() {
+        when(chatSessionMapper.getRecentMessagesBySessionId(1L, 3)).thenReturn(List.of(message(1L, "user", "hi")));
+
+        memory.get(1L);
+        memory.add(1L, message(2L, "assistant", "hello"));
+        List<Message> messages = memory.get(1L);
+
+        assertEquals(List.of("hi", "hello"), texts(messages));
+        verify(chatSessionMapper, times(1)).getRecentMessagesBySessionId(1L, 3);
+    }
+
+    @Test
+    public void testMessageAlreadyLoadedFromDbIsNotAppendedTwice() {
+        when(chatSessionMapper.getRecentMessagesBySessionId(1L, 3))
+                .thenReturn(List.of(message(1L, "user", "hi"), message(2L, "assistant", "hello")));
+
+        memory.get(1L);
+        memory.add(1L, message(2L, "assistant", "hello"));
+        memory.add(1L, message(3L, "user", "again"));
+
+        assertEquals(List.of("hi", "hello", "again"), texts(memory.get(1L)));
+    }
+
+    @Test
+    public void testWindowKeepsOnlyTheNewestMessages() {
+        when(chatSessionMapper.getRecentMessagesBySessionId(1L, 3)).thenReturn(new ArrayList<>());
+        memory.get(1L);
+
+        for (long id = 1; id <= 5; id++) {
+            memory.add(1L, message(id, id % 2 == 1 ? "user" : "assistant", "m" + id));
+        }
+
+        assertEquals(List.of("m3", "m4", "m5"), texts(memory.get(1L)));
+    }
+
+    @Test
+    public void testMessagesForUncachedSessionAreNotBuffered() {
+        memory.add(1L, message(1L, "user", "ignored"));
+        when(chatSessionMapper.getRecentMessagesBySessionId(1L, 3)).thenReturn(List.of(message(1L, "user", "from db")));
+
+        assertEquals(List.of("from db"), texts(memory.get(1L)));
+    }
+
+    @Test
+    public void testUnknownRolesAreSkipped() {
+        when(chatSessionMapper.getRecentMessagesBySessionId(1L, 3))
+                .thenReturn(List.of(message(1L, "system", "internal"), message(2L, "user", "hi")));
+
+        assertEquals(List.of("hi"), texts(memory.get(1L)));
+    }
+
+    @Test
+    public void testClearForcesReload() {
+        when(chatSessionMapper.getRecentMessagesBySessionId(1L, 3)).thenReturn(new ArrayList<>());
+        memory.get(1L);
+
+        memory.clear(1L);
+        memory.get(1L);
+
+        verify(chatSessionMapper, times(2)).getRecentMessagesBySessionId(1L, 3);
+    }
+
+    static ChatMessage message(Long id, String role, String content) {
+        ChatMessage message = new ChatMessage();
+        message.setId(id);
+        message.setSessionId(1L);
+        message.setRole(role);
+        message.setContent(content);
+        return message;
+    }
+
+    static List<String> texts(List<Message> messages) {
+        return messages.stream().map(Message::getText).toList();
+    }
+}
@@ -0,0 +1,26 @@
+package com.aidiary.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenEstimatorTest {
+
+    @Test
+    public void testEmptyText() {
+        assertEquals(0, TokenEstimator.estimate(null));
+        assertEquals(0, TokenEstimator.estimate(""));
+    }
+
+    @Test
+    public void testLatinTextIsAboutFourCharactersPerToken() {
+        assertEquals(1, TokenEstimator.estimate("abc"));
+        assertEquals(3, TokenEstimator.estimate("hello world!"));
+    }
+
+    @Test
+    public void testCjkCharactersCountOneTokenEach() {
+        assertEquals(4, TokenEstimator.estimate("今天很好"));
+        assertEquals(4 + 2, TokenEstimator.estimate("今天很好 so good"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.aidiary.support;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// Warm-up/measure harness for the *Benchmark classes. Surefire's default includes skip them;
+// run one explicitly, e.g. mvn test -Dtest=JwtAuthenticationBenchmark
+public final class Benchmarks {
+
+    private static volatile Object sink;
+
+    private Benchmarks() {
+    }
+
+    public record Result(String name, double nanosPerOp, double bestNanosPerOp) {
+        @Override
+        public String toString() {
+            return String.format("%-40s %12.1f ns/op (best round %.1f ns/op)", name, nanosPerOp, bestNanosPerOp);
+        }
+    }
+
+    public static Result measure(String name, int warmupRounds, int rounds, int opsPerRound, Supplier<?> op) {
+        for (int r = 0; r < warmupRounds; r++) {
+            runRound(opsPerRound, op);
+        }
+        double[] perOp = new double[rounds];
+        for (int r = 0; r < rounds; r++) {
+            perOp[r] = (double) runRound(opsPerRound, op) / opsPerRound;
+        }
+        Result result = new Result(name, Arrays.stream(perOp).average().orElse(0), Arrays.stream(perOp).min().orElse(0));
+        System.out.println(result);
+        return result;
+    }
+
+    private static long runRound(int ops, Supplier<?> op) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            sink = op.get();
+        }
+        return System.nanoTime() - start;
+    }
+}